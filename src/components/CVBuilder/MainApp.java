@@ -1,14 +1,25 @@
 package components.CVBuilder;
 
 import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.MessageFormat;
 import java.util.Locale;
 import java.util.ResourceBundle;
 
+import components.CVBuilder.model.CV;
 import components.CVBuilder.model.User;
+import components.CVBuilder.util.DatabaseConfig;
+import components.CVBuilder.util.EditJournal;
+import components.CVBuilder.util.QueryMetrics;
+import components.CVBuilder.util.TemplateEngine;
 import components.CVBuilder.view.LoginController;
+import components.CVBuilder.view.RootLayoutController;
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Scene;
+import javafx.scene.control.Alert;
 import javafx.scene.layout.BorderPane;
 import javafx.stage.Stage;
 
@@ -16,6 +27,7 @@ public class MainApp extends Application {
 
     private Stage primaryStage;
     private BorderPane rootLayout;
+    private RootLayoutController rootLayoutController;
     private User currentUser;
     private ResourceBundle bundle;
     private Locale currentLocale;
@@ -29,6 +41,23 @@ public class MainApp extends Application {
         // Initialize database connection
      /*   DatabaseHandler.getInstance();*/
 
+        // Journaled saves are acknowledged before they reach the database; report the ones that are rejected
+        EditJournal.addListener(new EditJournal.Listener() {
+            @Override
+            public void flushFailed(CV snapshot, String reason, Path deadLetterFile) {
+                Platform.runLater(() -> {
+                    Alert alert = new Alert(Alert.AlertType.ERROR);
+                    alert.setHeaderText(null);
+                    alert.setContentText(MessageFormat.format(bundle.getString("error.journal.rejected"),
+                            snapshot.getTitle(), reason, deadLetterFile));
+                    alert.showAndWait();
+                });
+            }
+        });
+
+        // Compile the CV templates now rather than on the first print
+        TemplateEngine.getInstance();
+
         // Set default locale (Russian)
         setLocale(new Locale("ru", "RU"));
 
@@ -36,6 +65,25 @@ public class MainApp extends Application {
         showLoginScreen();
     }
 
+    @Override
+    public void stop() {
+        // Push remaining journaled edits before exiting
+        try {
+            EditJournal.closeAll();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+
+        String metricsFile = DatabaseConfig.get("db.metrics.dumpFile", "");
+        if (!metricsFile.isEmpty()) {
+            try {
+                QueryMetrics.getInstance().dump(Paths.get(metricsFile));
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
     public void initRootLayout() {
         try {
             FXMLLoader loader = new FXMLLoader();
@@ -43,6 +91,11 @@ public class MainApp extends Application {
             loader.setResources(bundle);
             rootLayout = (BorderPane) loader.load();
 
+            if (rootLayoutController != null) {
+                rootLayoutController.dispose();
+            }
+            rootLayoutController = loader.getController();
+
             Scene scene = new Scene(rootLayout);
             primaryStage.setScene(scene);
             primaryStage.show();
@@ -150,6 +203,13 @@ public class MainApp extends Application {
 
     public void setCurrentUser(User user) {
         this.currentUser = user;
+
+        // Open the user's edit journal; edits a previous run left unsaved are replayed in the background
+        try {
+            EditJournal.forUser(user.getId());
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
     }
 
     public User getCurrentUser() {
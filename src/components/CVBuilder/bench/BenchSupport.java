@@ -0,0 +1,101 @@
+package components.CVBuilder.bench;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+import components.CVBuilder.model.CV;
+import components.CVBuilder.model.Education;
+import components.CVBuilder.model.Experience;
+import components.CVBuilder.model.Language;
+import components.CVBuilder.model.Skill;
+import components.CVBuilder.model.User;
+import components.CVBuilder.util.DatabaseConfig;
+import components.CVBuilder.util.DatabaseHandler;
+
+/**
+ * Shared setup of the database benchmarks: they run against the PostgreSQL
+ * database of {@code database.properties} on the classpath, as a throwaway
+ * user of their own.
+ */
+final class BenchSupport {
+
+    private BenchSupport() {
+    }
+
+    /**
+     * Connects, refusing to run with caching on: cached reads never reach the
+     * database and would only measure the cache.
+     */
+    static DatabaseHandler connect() {
+        if (!DatabaseConfig.BACKEND_POSTGRES.equals(DatabaseConfig.getBackend())) {
+            throw new IllegalStateException("Benchmarks need db.backend=postgres");
+        }
+        if (DatabaseConfig.getInt("db.cache.maxSize", 500) != 0) {
+            throw new IllegalStateException("Set db.cache.maxSize=0 for benchmarks");
+        }
+        if (!DatabaseConfig.getBoolean("db.metrics.enabled", true)) {
+            throw new IllegalStateException("Set db.metrics.enabled=true to count round trips");
+        }
+        return DatabaseHandler.getInstance();
+    }
+
+    static int registerUser(DatabaseHandler db) throws SQLException {
+        String name = "bench-" + System.currentTimeMillis();
+        db.registerUser(new User(0, name, name + "@bench.invalid", "bench"));
+        return db.loginUser(name, "bench").getId();
+    }
+
+    /**
+     * A CV sized like a real one: a few rows in every section and a
+     * paragraph of text in each description.
+     */
+    static CV sampleCV(int userId, int n, int rowsPerSection) {
+        CV cv = new CV();
+        cv.setUserId(userId);
+        cv.setTitle("Benchmark CV " + n);
+        cv.setFullName("Bench Mark");
+        cv.setEmail("bench@bench.invalid");
+        cv.setPhone("+1 555 0100");
+        cv.setAddress("1 Benchmark Road, Testville");
+        cv.setSummary("Engineer with a decade of experience in distributed systems, databases and tooling. "
+                + "Led teams of 5-10 people & shipped products used by 100% of the company's customers.");
+        for (int i = 0; i < rowsPerSection; i++) {
+            Education education = new Education();
+            education.setInstitution("University " + i);
+            education.setDegree("MSc");
+            education.setFieldOfStudy("Computer Science");
+            education.setStartDate(LocalDate.of(2000 + i, 9, 1));
+            education.setEndDate(LocalDate.of(2004 + i, 6, 30));
+            cv.getEducation().add(education);
+
+            Experience experience = new Experience();
+            experience.setCompany("Company " + i);
+            experience.setPosition("Senior Engineer");
+            experience.setLocation("Remote");
+            experience.setStartDate(LocalDate.of(2010 + i, 1, 1));
+            experience.setEndDate(i == 0 ? null : LocalDate.of(2011 + i, 1, 1));
+            experience.setDescription("Designed and ran the storage layer; cut p95 latency by 40% and "
+                    + "moved the team from nightly batch jobs to streaming ingestion.");
+            cv.getExperience().add(experience);
+
+            Skill skill = new Skill();
+            skill.setName("Skill " + i);
+            skill.setLevel(1 + i % 5);
+            cv.getSkills().add(skill);
+
+            Language language = new Language();
+            language.setName("Language " + i);
+            language.setProficiency("Fluent");
+            cv.getLanguages().add(language);
+        }
+        return cv;
+    }
+
+    static double percentileMillis(long[] nanos, double percentile) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,65 @@
+package components.CVBuilder.bench;
+
+import components.CVBuilder.util.DatabaseConfig;
+import components.CVBuilder.util.DatabaseHandler;
+import components.CVBuilder.util.QueryMetrics;
+
+/**
+ * Round trips and latency of {@link DatabaseHandler#getCVById} for one CV
+ * with 1, 5 and 20 rows per section, in the fetch mode set by
+ * {@code db.fetch.mode}. Run it once with {@code json} (one aggregating
+ * query) and once with {@code queries} (header plus one query per section)
+ * to compare the two.
+ *
+ * Runs against the database of {@code database.properties}, which needs
+ * {@code db.cache.maxSize=0}. The CVs are deleted afterwards; the benchmark
+ * user ({@code bench-<millis>}) is left behind.
+ *
+ * <pre>
+ * java -cp &lt;app classpath&gt; components.CVBuilder.bench.CVFetchBenchmark [iterations]
+ * </pre>
+ */
+public class CVFetchBenchmark {
+    private static final int[] ROWS_PER_SECTION = {1, 5, 20};
+
+    public static void main(String[] args) throws Exception {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+
+        DatabaseHandler db = BenchSupport.connect();
+        QueryMetrics metrics = QueryMetrics.getInstance();
+        int userId = BenchSupport.registerUser(db);
+
+        System.out.println("db.fetch.mode=" + DatabaseConfig.get("db.fetch.mode", DatabaseHandler.FETCH_MODE_JSON));
+        System.out.printf("%6s %12s %10s %10s%n", "rows", "round trips", "p50 ms", "p95 ms");
+        for (int rows : ROWS_PER_SECTION) {
+            int cvId = db.createCV(BenchSupport.sampleCV(userId, rows, rows));
+            try {
+                // Warm up the JIT and the server's plan cache
+                for (int i = 0; i < Math.max(10, iterations / 10); i++) {
+                    fetch(db, cvId);
+                }
+
+                long statementsBefore = metrics.getStatementCount();
+                long[] nanos = new long[iterations];
+                for (int i = 0; i < iterations; i++) {
+                    long start = System.nanoTime();
+                    fetch(db, cvId);
+                    nanos[i] = System.nanoTime() - start;
+                }
+                long roundTrips = (metrics.getStatementCount() - statementsBefore) / iterations;
+
+                System.out.printf("%6d %12d %10.2f %10.2f%n", rows, roundTrips,
+                        BenchSupport.percentileMillis(nanos, 50), BenchSupport.percentileMillis(nanos, 95));
+            } finally {
+                db.deleteCV(cvId);
+            }
+        }
+        System.exit(0);
+    }
+
+    private static void fetch(DatabaseHandler db, int cvId) {
+        if (db.getCVById(cvId) == null) {
+            throw new IllegalStateException("CV " + cvId + " not found");
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package components.CVBuilder.bench;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import components.CVBuilder.model.CV;
+import components.CVBuilder.util.DatabaseHandler;
+import components.CVBuilder.util.QueryMetrics;
+
+/**
+ * Round trips and latency of {@link DatabaseHandler#getCVsByUserId} for a
+ * user with 1, 10, 100 and 1000 CVs. Sections are loaded with one query per
+ * child table for the whole id set, so the round trips should stay at five
+ * where the per-CV loader needed 1 + 4N.
+ *
+ * Runs against the database of {@code database.properties}, which needs
+ * {@code db.cache.maxSize=0}. The CVs are deleted afterwards; the benchmark
+ * user ({@code bench-<millis>}) is left behind.
+ *
+ * <pre>
+ * java -cp &lt;app classpath&gt; components.CVBuilder.bench.CVLoadBenchmark [iterations]
+ * </pre>
+ */
+public class CVLoadBenchmark {
+    private static final int[] CV_COUNTS = {1, 10, 100, 1000};
+    private static final int ROWS_PER_SECTION = 3;
+
+    public static void main(String[] args) throws Exception {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+
+        DatabaseHandler db = BenchSupport.connect();
+        QueryMetrics metrics = QueryMetrics.getInstance();
+        int userId = BenchSupport.registerUser(db);
+        List<Integer> cvIds = new ArrayList<>();
+
+        System.out.printf("%6s %12s %12s %10s %10s%n", "CVs", "round trips", "1+4N before", "p50 ms", "p95 ms");
+        try {
+            for (int count : CV_COUNTS) {
+                while (cvIds.size() < count) {
+                    cvIds.add(db.createCV(BenchSupport.sampleCV(userId, cvIds.size(), ROWS_PER_SECTION)));
+                }
+
+                // Warm up the JIT and the server's plan cache
+                for (int i = 0; i < Math.max(3, iterations / 4); i++) {
+                    load(db, userId, count);
+                }
+
+                long statementsBefore = metrics.getStatementCount();
+                long[] nanos = new long[iterations];
+                for (int i = 0; i < iterations; i++) {
+                    long start = System.nanoTime();
+                    load(db, userId, count);
+                    nanos[i] = System.nanoTime() - start;
+                }
+                long roundTrips = (metrics.getStatementCount() - statementsBefore) / iterations;
+
+                System.out.printf("%6d %12d %12d %10.2f %10.2f%n", count, roundTrips, 1 + 4L * count,
+                        BenchSupport.percentileMillis(nanos, 50), BenchSupport.percentileMillis(nanos, 95));
+            }
+        } finally {
+            db.deleteCVs(cvIds);
+        }
+        System.exit(0);
+    }
+
+    private static void load(DatabaseHandler db, int userId, int expected) {
+        List<CV> cvs = db.getCVsByUserId(userId);
+        if (cvs.size() != expected) {
+            throw new IllegalStateException("Loaded " + cvs.size() + " CVs, expected " + expected);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package components.CVBuilder.bench;
+
+import java.lang.management.ManagementFactory;
+
+import components.CVBuilder.util.LaTeXEscaper;
+
+/**
+ * Time and allocation per call of {@link LaTeXEscaper} against a chain of
+ * {@code String.replace} calls, the approach it replaced, extended to the
+ * same ten characters so both do the same work. Runs on description- and
+ * summary-sized text with and without characters to escape. Needs no
+ * database.
+ *
+ * <pre>
+ * java -cp &lt;app classpath&gt; components.CVBuilder.bench.LaTeXEscaperBenchmark [iterations]
+ * </pre>
+ */
+public class LaTeXEscaperBenchmark {
+    private static final String DESCRIPTION = ("Led the migration of the billing platform to an event-driven design "
+            + "& cut invoice latency by 35%. Owned the on-call rota for 12 services, wrote the runbooks and "
+            + "trained 6 engineers; budget of $250k per year. Built the export_v2 pipeline (#1 request of "
+            + "enterprise customers), the {config} templating used by all teams and the C:\\deploy\\scripts "
+            + "~ 2^10 jobs. ").repeat(4);
+    private static final String SUMMARY = ("Backend engineer with ten years of experience in distributed systems, "
+            + "databases and developer tooling. Enjoys mentoring, careful code review and turning slow, "
+            + "fragile processes into fast and boring ones. ").repeat(4);
+
+    private static volatile Object sink;
+
+    private interface Escaper {
+        Object escape(String input);
+    }
+
+    public static void main(String[] args) {
+        for (String text : new String[] { DESCRIPTION, SUMMARY }) {
+            if (!replaceChain(text).equals(LaTeXEscaper.escape(text))) {
+                throw new IllegalStateException("Baseline and LaTeXEscaper disagree");
+            }
+        }
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        StringBuilder reused = new StringBuilder(2048);
+
+        Escaper replaceChain = LaTeXEscaperBenchmark::replaceChain;
+        Escaper escaper = LaTeXEscaper::escape;
+        Escaper reusedBuilder = input -> {
+            reused.setLength(0);
+            return LaTeXEscaper.escape(input, reused);
+        };
+
+        System.out.printf("%-34s %10s %12s%n", "case", "ns/op", "bytes/op");
+        for (int round = 0; round < 2; round++) {
+            // The first round only warms up the JIT
+            boolean report = round == 1;
+            run("description, String.replace chain", replaceChain, DESCRIPTION, iterations, report);
+            run("description, LaTeXEscaper", escaper, DESCRIPTION, iterations, report);
+            run("description, reused StringBuilder", reusedBuilder, DESCRIPTION, iterations, report);
+            run("summary, String.replace chain", replaceChain, SUMMARY, iterations, report);
+            run("summary, LaTeXEscaper", escaper, SUMMARY, iterations, report);
+        }
+    }
+
+    private static void run(String name, Escaper escaper, String input, int iterations, boolean report) {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+
+        long bytesBefore = threads.getThreadAllocatedBytes(thread);
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink = escaper.escape(input);
+        }
+        long nanos = System.nanoTime() - start;
+        long bytes = threads.getThreadAllocatedBytes(thread) - bytesBefore;
+
+        if (report) {
+            System.out.printf("%-34s %10.1f %12d%n", name, (double) nanos / iterations, bytes / iterations);
+        }
+    }
+
+    // The replace chain LaTeXEscaper replaced, plus the backslash, ~ and ^ it missed; the
+    // backslash goes first so the escapes added afterwards are not escaped again
+    private static String replaceChain(String input) {
+        return input.replace("\\", "\u0000")
+                .replace("&", "\\&")
+                .replace("%", "\\%")
+                .replace("$", "\\$")
+                .replace("#", "\\#")
+                .replace("_", "\\_")
+                .replace("{", "\\{")
+                .replace("}", "\\}")
+                .replace("~", "\\textasciitilde{}")
+                .replace("^", "\\textasciicircum{}")
+                .replace("\u0000", "\\textbackslash{}");
+    }
+}
@@ -2,9 +2,21 @@
 package components.CVBuilder.model;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiPredicate;
 
 public class CV {
+    // Header field bits reported by getDirtyFields()
+    public static final int TITLE = 1 << 0;
+    public static final int FULL_NAME = 1 << 1;
+    public static final int EMAIL = 1 << 2;
+    public static final int PHONE = 1 << 3;
+    public static final int ADDRESS = 1 << 4;
+    public static final int SUMMARY = 1 << 5;
+
     private int id;
     private int userId;
     private String title;
@@ -17,6 +29,13 @@ public class CV {
     private List<Experience> experience;
     private List<Skill> skills;
     private List<Language> languages;
+    private int dirtyFields;
+
+    // Section row ids as of the last markClean(); null until the CV is tracked
+    private Set<Integer> cleanEducationIds;
+    private Set<Integer> cleanExperienceIds;
+    private Set<Integer> cleanSkillIds;
+    private Set<Integer> cleanLanguageIds;
 
     public CV() {
         education = new ArrayList<>();
@@ -47,7 +66,10 @@ public class CV {
     }
 
     public void setTitle(String title) {
-        this.title = title;
+        if (!Objects.equals(this.title, title)) {
+            this.title = title;
+            dirtyFields |= TITLE;
+        }
     }
 
     public String getFullName() {
@@ -55,7 +77,10 @@ public class CV {
     }
 
     public void setFullName(String fullName) {
-        this.fullName = fullName;
+        if (!Objects.equals(this.fullName, fullName)) {
+            this.fullName = fullName;
+            dirtyFields |= FULL_NAME;
+        }
     }
 
     public String getEmail() {
@@ -63,7 +88,10 @@ public class CV {
     }
 
     public void setEmail(String email) {
-        this.email = email;
+        if (!Objects.equals(this.email, email)) {
+            this.email = email;
+            dirtyFields |= EMAIL;
+        }
     }
 
     public String getPhone() {
@@ -71,7 +99,10 @@ public class CV {
     }
 
     public void setPhone(String phone) {
-        this.phone = phone;
+        if (!Objects.equals(this.phone, phone)) {
+            this.phone = phone;
+            dirtyFields |= PHONE;
+        }
     }
 
     public String getAddress() {
@@ -79,7 +110,10 @@ public class CV {
     }
 
     public void setAddress(String address) {
-        this.address = address;
+        if (!Objects.equals(this.address, address)) {
+            this.address = address;
+            dirtyFields |= ADDRESS;
+        }
     }
 
     public String getSummary() {
@@ -87,7 +121,10 @@ public class CV {
     }
 
     public void setSummary(String summary) {
-        this.summary = summary;
+        if (!Objects.equals(this.summary, summary)) {
+            this.summary = summary;
+            dirtyFields |= SUMMARY;
+        }
     }
 
     public List<Education> getEducation() {
@@ -138,4 +175,198 @@ public class CV {
         languages.add(language);
     }
 
+    /**
+     * Returns a deep copy of the CV and its sections, including change-tracking state.
+     */
+    public CV copy() {
+        CV copy = new CV();
+        copy.id = id;
+        copy.userId = userId;
+        copy.title = title;
+        copy.fullName = fullName;
+        copy.email = email;
+        copy.phone = phone;
+        copy.address = address;
+        copy.summary = summary;
+        for (Education edu : education) {
+            copy.education.add(edu.copy());
+        }
+        for (Experience exp : experience) {
+            copy.experience.add(exp.copy());
+        }
+        for (Skill skill : skills) {
+            copy.skills.add(skill.copy());
+        }
+        for (Language language : languages) {
+            copy.languages.add(language.copy());
+        }
+        copy.dirtyFields = dirtyFields;
+        // Baselines are replaced on markClean(), never mutated, so they can be shared
+        copy.cleanEducationIds = cleanEducationIds;
+        copy.cleanExperienceIds = cleanExperienceIds;
+        copy.cleanSkillIds = cleanSkillIds;
+        copy.cleanLanguageIds = cleanLanguageIds;
+        return copy;
+    }
+
+    // Change tracking
+
+    /**
+     * Whether this CV has a clean baseline, i.e. was loaded from or saved to
+     * the database. Untracked CVs must be compared with the stored rows.
+     */
+    public boolean isTracked() {
+        return cleanEducationIds != null;
+    }
+
+    /**
+     * Bit mask of the header fields changed since the last {@link #markClean()}.
+     */
+    public int getDirtyFields() {
+        return dirtyFields;
+    }
+
+    public boolean isDirty() {
+        return !isTracked()
+                || dirtyFields != 0
+                || !getEducationChanges().isEmpty()
+                || !getExperienceChanges().isEmpty()
+                || !getSkillChanges().isEmpty()
+                || !getLanguageChanges().isEmpty();
+    }
+
+    public SectionChanges<Education> getEducationChanges() {
+        return SectionChanges.between(education, baseline(cleanEducationIds));
+    }
+
+    public SectionChanges<Experience> getExperienceChanges() {
+        return SectionChanges.between(experience, baseline(cleanExperienceIds));
+    }
+
+    public SectionChanges<Skill> getSkillChanges() {
+        return SectionChanges.between(skills, baseline(cleanSkillIds));
+    }
+
+    public SectionChanges<Language> getLanguageChanges() {
+        return SectionChanges.between(languages, baseline(cleanLanguageIds));
+    }
+
+    /**
+     * Records the current state as the saved baseline for the header and all sections.
+     */
+    public void markClean() {
+        dirtyFields = 0;
+        cleanEducationIds = cleanIds(education);
+        cleanExperienceIds = cleanIds(experience);
+        cleanSkillIds = cleanIds(skills);
+        cleanLanguageIds = cleanIds(languages);
+    }
+
+    /**
+     * Takes over the row ids assigned when {@code saved}, an earlier snapshot
+     * of this CV, was written: each row here still without an id gets the id
+     * of an equal saved row that no other row has. Adopted rows that were not
+     * edited since become part of the clean baseline.
+     */
+    public void adoptIds(CV saved) {
+        cleanEducationIds = adoptIds(education, cleanEducationIds, saved.education, Education::sameContent);
+        cleanExperienceIds = adoptIds(experience, cleanExperienceIds, saved.experience, Experience::sameContent);
+        cleanSkillIds = adoptIds(skills, cleanSkillIds, saved.skills, Skill::sameContent);
+        cleanLanguageIds = adoptIds(languages, cleanLanguageIds, saved.languages, Language::sameContent);
+    }
+
+    // Returns the section's new baseline; baselines may be shared with copies, so it is never changed in place
+    private <T extends Tracked> Set<Integer> adoptIds(List<T> rows, Set<Integer> cleanIds, List<T> savedRows,
+                                                      BiPredicate<T, T> sameContent) {
+        Set<Integer> baseline = cleanIds != null ? new HashSet<>(cleanIds) : null;
+        Set<Integer> taken = new HashSet<>();
+        for (T row : rows) {
+            taken.add(row.getId());
+        }
+
+        boolean unsavedLeft = false;
+        for (T row : rows) {
+            if (row.getId() > 0) {
+                continue;
+            }
+            for (T savedRow : savedRows) {
+                if (savedRow.getId() > 0 && !taken.contains(savedRow.getId()) && sameContent.test(row, savedRow)) {
+                    row.setId(savedRow.getId());
+                    row.setCvId(id);
+                    taken.add(savedRow.getId());
+                    if (baseline != null && !row.isDirty()) {
+                        baseline.add(row.getId());
+                    }
+                    break;
+                }
+            }
+            unsavedLeft |= row.getId() == 0;
+        }
+
+        if (baseline != null && !unsavedLeft) {
+            baseline.remove(0);
+        }
+        return baseline;
+    }
+
+    /**
+     * Drops the saved baseline, so the whole CV counts as changed again, e.g.
+     * when a save that was already acknowledged turned out to fail.
+     */
+    public void markDirty() {
+        cleanEducationIds = null;
+        cleanExperienceIds = null;
+        cleanSkillIds = null;
+        cleanLanguageIds = null;
+    }
+
+    /**
+     * Carries over the changes of {@code earlier}, an unsaved snapshot of this
+     * CV taken before its last {@link #markClean()}, so that writing this CV
+     * also writes what {@code earlier} would have: the changed header fields
+     * and row fields are combined and the baseline goes back to that of
+     * {@code earlier}. If either CV is untracked, this one becomes untracked.
+     */
+    public void mergeChanges(CV earlier) {
+        if (!isTracked() || !earlier.isTracked()) {
+            markDirty();
+            return;
+        }
+        dirtyFields |= earlier.dirtyFields;
+        mergeRowChanges(education, earlier.education);
+        mergeRowChanges(experience, earlier.experience);
+        mergeRowChanges(skills, earlier.skills);
+        mergeRowChanges(languages, earlier.languages);
+        cleanEducationIds = earlier.cleanEducationIds;
+        cleanExperienceIds = earlier.cleanExperienceIds;
+        cleanSkillIds = earlier.cleanSkillIds;
+        cleanLanguageIds = earlier.cleanLanguageIds;
+    }
+
+    private static <T extends Tracked> void mergeRowChanges(List<T> rows, List<T> earlierRows) {
+        for (T earlierRow : earlierRows) {
+            if (earlierRow.getId() <= 0 || !earlierRow.isDirty()) {
+                continue;
+            }
+            for (T row : rows) {
+                if (row.getId() == earlierRow.getId()) {
+                    row.markDirty(earlierRow.getDirtyFields());
+                    break;
+                }
+            }
+        }
+    }
+
+    private static Set<Integer> baseline(Set<Integer> cleanIds) {
+        return cleanIds != null ? cleanIds : new HashSet<>();
+    }
+
+    private static Set<Integer> cleanIds(List<? extends Tracked> rows) {
+        Set<Integer> ids = new HashSet<>();
+        for (Tracked row : rows) {
+            row.markClean();
+            ids.add(row.getId());
+        }
+        return ids;
+    }
 }
@@ -0,0 +1,90 @@
+package components.CVBuilder.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Lightweight dashboard view of a CV: header data and section sizes only.
+ * The full aggregate is loaded when the CV is opened in the editor.
+ */
+public class CVSummary {
+    private int id;
+    private String title;
+    private LocalDateTime updatedAt;
+    private int educationCount;
+    private int experienceCount;
+    private int skillCount;
+    private int languageCount;
+
+    public CVSummary() {
+        // Default constructor
+    }
+
+    // Getters and Setters
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public int getEducationCount() {
+        return educationCount;
+    }
+
+    public void setEducationCount(int educationCount) {
+        this.educationCount = educationCount;
+    }
+
+    public int getExperienceCount() {
+        return experienceCount;
+    }
+
+    public void setExperienceCount(int experienceCount) {
+        this.experienceCount = experienceCount;
+    }
+
+    public int getSkillCount() {
+        return skillCount;
+    }
+
+    public void setSkillCount(int skillCount) {
+        this.skillCount = skillCount;
+    }
+
+    public int getLanguageCount() {
+        return languageCount;
+    }
+
+    public void setLanguageCount(int languageCount) {
+        this.languageCount = languageCount;
+    }
+
+    public CVSummary copy() {
+        CVSummary copy = new CVSummary();
+        copy.id = id;
+        copy.title = title;
+        copy.updatedAt = updatedAt;
+        copy.educationCount = educationCount;
+        copy.experienceCount = experienceCount;
+        copy.skillCount = skillCount;
+        copy.languageCount = languageCount;
+        return copy;
+    }
+}
@@ -2,8 +2,17 @@
 package components.CVBuilder.model;
 
 import java.time.LocalDate;
+import java.util.Objects;
+
+public class Education implements Tracked {
+    // Field bits reported by getDirtyFields()
+    public static final int INSTITUTION = 1 << 0;
+    public static final int DEGREE = 1 << 1;
+    public static final int FIELD_OF_STUDY = 1 << 2;
+    public static final int START_DATE = 1 << 3;
+    public static final int END_DATE = 1 << 4;
+    public static final int DESCRIPTION = 1 << 5;
 
-public class Education {
     private int id;
     private int cvId;
     private String institution;
@@ -12,6 +21,7 @@ public class Education {
     private LocalDate  startDate;
     private LocalDate  endDate;
     private String description;
+    private int dirtyFields;
 
     public Education() {
         // Default constructor
@@ -49,7 +59,10 @@ public class Education {
     }
 
     public void setInstitution(String institution) {
-        this.institution = institution;
+        if (!Objects.equals(this.institution, institution)) {
+            this.institution = institution;
+            dirtyFields |= INSTITUTION;
+        }
     }
 
     public String getDegree() {
@@ -57,7 +70,10 @@ public class Education {
     }
 
     public void setDegree(String degree) {
-        this.degree = degree;
+        if (!Objects.equals(this.degree, degree)) {
+            this.degree = degree;
+            dirtyFields |= DEGREE;
+        }
     }
 
     public String getFieldOfStudy() {
@@ -65,23 +81,32 @@ public class Education {
     }
 
     public void setFieldOfStudy(String fieldOfStudy) {
-        this.fieldOfStudy = fieldOfStudy;
+        if (!Objects.equals(this.fieldOfStudy, fieldOfStudy)) {
+            this.fieldOfStudy = fieldOfStudy;
+            dirtyFields |= FIELD_OF_STUDY;
+        }
     }
 
     public LocalDate  getStartDate() {
         return startDate;
     }
 
-    public void setStartDate(LocalDate  startDate) {
-        this.startDate = startDate;
+    public void setStartDate(LocalDate startDate) {
+        if (!Objects.equals(this.startDate, startDate)) {
+            this.startDate = startDate;
+            dirtyFields |= START_DATE;
+        }
     }
 
     public LocalDate  getEndDate() {
         return endDate;
     }
 
-    public void setEndDate(LocalDate  endDate) {
-        this.endDate = endDate;
+    public void setEndDate(LocalDate endDate) {
+        if (!Objects.equals(this.endDate, endDate)) {
+            this.endDate = endDate;
+            dirtyFields |= END_DATE;
+        }
     }
 
     public String getDescription() {
@@ -89,6 +114,53 @@ public class Education {
     }
 
     public void setDescription(String description) {
-        this.description = description;
+        if (!Objects.equals(this.description, description)) {
+            this.description = description;
+            dirtyFields |= DESCRIPTION;
+        }
+    }
+
+    /**
+     * Returns an independent copy, including change-tracking state.
+     */
+    public Education copy() {
+        Education copy = new Education();
+        copy.id = id;
+        copy.cvId = cvId;
+        copy.institution = institution;
+        copy.degree = degree;
+        copy.fieldOfStudy = fieldOfStudy;
+        copy.startDate = startDate;
+        copy.endDate = endDate;
+        copy.description = description;
+        copy.dirtyFields = dirtyFields;
+        return copy;
+    }
+
+    /**
+     * Whether both rows hold the same values, ignoring ids.
+     */
+    public boolean sameContent(Education other) {
+        return Objects.equals(institution, other.institution)
+                && Objects.equals(degree, other.degree)
+                && Objects.equals(fieldOfStudy, other.fieldOfStudy)
+                && Objects.equals(startDate, other.startDate)
+                && Objects.equals(endDate, other.endDate)
+                && Objects.equals(description, other.description);
+    }
+
+    @Override
+    public int getDirtyFields() {
+        return dirtyFields;
+    }
+
+    @Override
+    public void markClean() {
+        dirtyFields = 0;
+    }
+
+    @Override
+    public void markDirty(int fields) {
+        dirtyFields |= fields;
     }
 }
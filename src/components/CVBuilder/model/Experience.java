@@ -2,8 +2,17 @@
 package components.CVBuilder.model;
 
 import java.time.LocalDate;
+import java.util.Objects;
+
+public class Experience implements Tracked {
+    // Field bits reported by getDirtyFields()
+    public static final int COMPANY = 1 << 0;
+    public static final int POSITION = 1 << 1;
+    public static final int LOCATION = 1 << 2;
+    public static final int START_DATE = 1 << 3;
+    public static final int END_DATE = 1 << 4;
+    public static final int DESCRIPTION = 1 << 5;
 
-public class Experience {
     private int id;
     private int cvId;
     private String company;
@@ -12,6 +21,7 @@ public class Experience {
     private LocalDate  startDate;
     private LocalDate  endDate;
     private String description;
+    private int dirtyFields;
 
     public Experience() {
         // Default constructor
@@ -49,7 +59,10 @@ public class Experience {
     }
 
     public void setCompany(String company) {
-        this.company = company;
+        if (!Objects.equals(this.company, company)) {
+            this.company = company;
+            dirtyFields |= COMPANY;
+        }
     }
 
     public String getPosition() {
@@ -57,7 +70,10 @@ public class Experience {
     }
 
     public void setPosition(String position) {
-        this.position = position;
+        if (!Objects.equals(this.position, position)) {
+            this.position = position;
+            dirtyFields |= POSITION;
+        }
     }
 
     public String getLocation() {
@@ -65,23 +81,32 @@ public class Experience {
     }
 
     public void setLocation(String location) {
-        this.location = location;
+        if (!Objects.equals(this.location, location)) {
+            this.location = location;
+            dirtyFields |= LOCATION;
+        }
     }
 
     public LocalDate  getStartDate() {
         return startDate;
     }
 
-    public void setStartDate(LocalDate  startDate) {
-        this.startDate = startDate;
+    public void setStartDate(LocalDate startDate) {
+        if (!Objects.equals(this.startDate, startDate)) {
+            this.startDate = startDate;
+            dirtyFields |= START_DATE;
+        }
     }
 
     public LocalDate  getEndDate() {
         return endDate;
     }
 
-    public void setEndDate(LocalDate  endDate) {
-        this.endDate = endDate;
+    public void setEndDate(LocalDate endDate) {
+        if (!Objects.equals(this.endDate, endDate)) {
+            this.endDate = endDate;
+            dirtyFields |= END_DATE;
+        }
     }
 
     public String getDescription() {
@@ -89,6 +114,53 @@ public class Experience {
     }
 
     public void setDescription(String description) {
-        this.description = description;
+        if (!Objects.equals(this.description, description)) {
+            this.description = description;
+            dirtyFields |= DESCRIPTION;
+        }
+    }
+
+    /**
+     * Returns an independent copy, including change-tracking state.
+     */
+    public Experience copy() {
+        Experience copy = new Experience();
+        copy.id = id;
+        copy.cvId = cvId;
+        copy.company = company;
+        copy.position = position;
+        copy.location = location;
+        copy.startDate = startDate;
+        copy.endDate = endDate;
+        copy.description = description;
+        copy.dirtyFields = dirtyFields;
+        return copy;
+    }
+
+    /**
+     * Whether both rows hold the same values, ignoring ids.
+     */
+    public boolean sameContent(Experience other) {
+        return Objects.equals(company, other.company)
+                && Objects.equals(position, other.position)
+                && Objects.equals(location, other.location)
+                && Objects.equals(startDate, other.startDate)
+                && Objects.equals(endDate, other.endDate)
+                && Objects.equals(description, other.description);
+    }
+
+    @Override
+    public int getDirtyFields() {
+        return dirtyFields;
+    }
+
+    @Override
+    public void markClean() {
+        dirtyFields = 0;
+    }
+
+    @Override
+    public void markDirty(int fields) {
+        dirtyFields |= fields;
     }
 }
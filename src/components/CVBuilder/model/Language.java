@@ -1,11 +1,18 @@
 
 package components.CVBuilder.model;
 
-public class Language {
+import java.util.Objects;
+
+public class Language implements Tracked {
+    // Field bits reported by getDirtyFields()
+    public static final int NAME = 1 << 0;
+    public static final int PROFICIENCY = 1 << 1;
+
     private int id;
     private int cvId;
     private String name;
     private String proficiency; // Beginner, Intermediate, Advanced, Native
+    private int dirtyFields;
 
     public Language() {
         // Default constructor
@@ -38,7 +45,10 @@ public class Language {
     }
 
     public void setName(String name) {
-        this.name = name;
+        if (!Objects.equals(this.name, name)) {
+            this.name = name;
+            dirtyFields |= NAME;
+        }
     }
 
     public String getProficiency() {
@@ -46,6 +56,44 @@ public class Language {
     }
 
     public void setProficiency(String proficiency) {
-        this.proficiency = proficiency;
+        if (!Objects.equals(this.proficiency, proficiency)) {
+            this.proficiency = proficiency;
+            dirtyFields |= PROFICIENCY;
+        }
+    }
+
+    /**
+     * Returns an independent copy, including change-tracking state.
+     */
+    public Language copy() {
+        Language copy = new Language();
+        copy.id = id;
+        copy.cvId = cvId;
+        copy.name = name;
+        copy.proficiency = proficiency;
+        copy.dirtyFields = dirtyFields;
+        return copy;
+    }
+
+    /**
+     * Whether both rows hold the same values, ignoring ids.
+     */
+    public boolean sameContent(Language other) {
+        return Objects.equals(name, other.name) && Objects.equals(proficiency, other.proficiency);
+    }
+
+    @Override
+    public int getDirtyFields() {
+        return dirtyFields;
+    }
+
+    @Override
+    public void markClean() {
+        dirtyFields = 0;
+    }
+
+    @Override
+    public void markDirty(int fields) {
+        dirtyFields |= fields;
     }
 }
@@ -0,0 +1,57 @@
+package components.CVBuilder.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Rows added, modified and removed in one CV section since the CV was last
+ * marked clean.
+ */
+public final class SectionChanges<T extends Tracked> {
+    private final List<T> added;
+    private final List<T> modified;
+    private final Set<Integer> removedIds;
+
+    private SectionChanges(List<T> added, List<T> modified, Set<Integer> removedIds) {
+        this.added = added;
+        this.modified = modified;
+        this.removedIds = removedIds;
+    }
+
+    static <T extends Tracked> SectionChanges<T> between(List<T> current, Set<Integer> cleanIds) {
+        List<T> added = new ArrayList<>();
+        List<T> modified = new ArrayList<>();
+        Set<Integer> removedIds = new HashSet<>(cleanIds);
+
+        for (T row : current) {
+            if (row.getId() == 0 || !cleanIds.contains(row.getId())) {
+                added.add(row);
+            } else {
+                removedIds.remove(row.getId());
+                if (row.isDirty()) {
+                    modified.add(row);
+                }
+            }
+        }
+        return new SectionChanges<>(added, modified, removedIds);
+    }
+
+    public List<T> getAdded() {
+        return Collections.unmodifiableList(added);
+    }
+
+    public List<T> getModified() {
+        return Collections.unmodifiableList(modified);
+    }
+
+    public Set<Integer> getRemovedIds() {
+        return Collections.unmodifiableSet(removedIds);
+    }
+
+    public boolean isEmpty() {
+        return added.isEmpty() && modified.isEmpty() && removedIds.isEmpty();
+    }
+}
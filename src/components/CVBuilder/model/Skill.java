@@ -1,11 +1,18 @@
 
 package components.CVBuilder.model;
 
-public class Skill {
+import java.util.Objects;
+
+public class Skill implements Tracked {
+    // Field bits reported by getDirtyFields()
+    public static final int NAME = 1 << 0;
+    public static final int LEVEL = 1 << 1;
+
     private int id;
     private int cvId;
     private String name;
     private int level; // 1-5
+    private int dirtyFields;
 
     public Skill() {
         // Default constructor
@@ -38,7 +45,10 @@ public class Skill {
     }
 
     public void setName(String name) {
-        this.name = name;
+        if (!Objects.equals(this.name, name)) {
+            this.name = name;
+            dirtyFields |= NAME;
+        }
     }
 
     public int getLevel() {
@@ -46,6 +56,44 @@ public class Skill {
     }
 
     public void setLevel(int level) {
-        this.level = level;
+        if (this.level != level) {
+            this.level = level;
+            dirtyFields |= LEVEL;
+        }
+    }
+
+    /**
+     * Returns an independent copy, including change-tracking state.
+     */
+    public Skill copy() {
+        Skill copy = new Skill();
+        copy.id = id;
+        copy.cvId = cvId;
+        copy.name = name;
+        copy.level = level;
+        copy.dirtyFields = dirtyFields;
+        return copy;
+    }
+
+    /**
+     * Whether both rows hold the same values, ignoring ids.
+     */
+    public boolean sameContent(Skill other) {
+        return Objects.equals(name, other.name) && level == other.level;
+    }
+
+    @Override
+    public int getDirtyFields() {
+        return dirtyFields;
+    }
+
+    @Override
+    public void markClean() {
+        dirtyFields = 0;
+    }
+
+    @Override
+    public void markDirty(int fields) {
+        dirtyFields |= fields;
     }
 }
@@ -0,0 +1,30 @@
+package components.CVBuilder.model;
+
+/**
+ * A CV section row that remembers which of its fields changed since it was
+ * last loaded from or written to the database.
+ */
+public interface Tracked {
+    int getId();
+
+    void setId(int id);
+
+    void setCvId(int cvId);
+
+    /**
+     * Bit mask of the fields changed since the last {@link #markClean()}.
+     */
+    int getDirtyFields();
+
+    default boolean isDirty() {
+        return getDirtyFields() != 0;
+    }
+
+    void markClean();
+
+    /**
+     * Flags fields as changed, e.g. changes of an earlier snapshot that were
+     * never written.
+     */
+    void markDirty(int fields);
+}
@@ -0,0 +1,59 @@
+-- Baseline schema. IF NOT EXISTS lets databases created by hand from the
+-- README adopt the migration history without changes.
+
+CREATE TABLE IF NOT EXISTS users (
+    id SERIAL PRIMARY KEY,
+    username VARCHAR(50) UNIQUE NOT NULL,
+    email VARCHAR(100) UNIQUE NOT NULL,
+    password VARCHAR(100) NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS cvs (
+    id SERIAL PRIMARY KEY,
+    user_id INTEGER REFERENCES users(id) ON DELETE CASCADE,
+    title VARCHAR(200) NOT NULL,
+    full_name VARCHAR(100) NOT NULL,
+    email VARCHAR(100) NOT NULL,
+    phone VARCHAR(20),
+    address TEXT,
+    summary TEXT,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS education (
+    id SERIAL PRIMARY KEY,
+    cv_id INTEGER REFERENCES cvs(id) ON DELETE CASCADE,
+    institution VARCHAR(200) NOT NULL,
+    degree VARCHAR(100),
+    field_of_study VARCHAR(100),
+    start_date DATE,
+    end_date DATE,
+    description TEXT
+);
+
+CREATE TABLE IF NOT EXISTS experience (
+    id SERIAL PRIMARY KEY,
+    cv_id INTEGER REFERENCES cvs(id) ON DELETE CASCADE,
+    company VARCHAR(200) NOT NULL,
+    position VARCHAR(100),
+    location VARCHAR(100),
+    start_date DATE,
+    end_date DATE,
+    description TEXT
+);
+
+CREATE TABLE IF NOT EXISTS skills (
+    id SERIAL PRIMARY KEY,
+    cv_id INTEGER REFERENCES cvs(id) ON DELETE CASCADE,
+    name VARCHAR(100) NOT NULL,
+    level INTEGER CHECK (level BETWEEN 1 AND 5)
+);
+
+CREATE TABLE IF NOT EXISTS languages (
+    id SERIAL PRIMARY KEY,
+    cv_id INTEGER REFERENCES cvs(id) ON DELETE CASCADE,
+    name VARCHAR(50) NOT NULL,
+    proficiency VARCHAR(20)
+);
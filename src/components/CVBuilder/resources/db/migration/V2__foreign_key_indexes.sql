@@ -0,0 +1,26 @@
+-- PostgreSQL does not index foreign keys by itself. Every section load and
+-- delete filters on cv_id and the dashboard filters on user_id.
+
+-- Older hand-made schemas may lack the cascades; recreate them under the
+-- default constraint names that DatabaseHandler reports errors for.
+ALTER TABLE cvs DROP CONSTRAINT IF EXISTS cvs_user_id_fkey,
+    ADD CONSTRAINT cvs_user_id_fkey FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE;
+ALTER TABLE education DROP CONSTRAINT IF EXISTS education_cv_id_fkey,
+    ADD CONSTRAINT education_cv_id_fkey FOREIGN KEY (cv_id) REFERENCES cvs(id) ON DELETE CASCADE;
+ALTER TABLE experience DROP CONSTRAINT IF EXISTS experience_cv_id_fkey,
+    ADD CONSTRAINT experience_cv_id_fkey FOREIGN KEY (cv_id) REFERENCES cvs(id) ON DELETE CASCADE;
+ALTER TABLE skills DROP CONSTRAINT IF EXISTS skills_cv_id_fkey,
+    ADD CONSTRAINT skills_cv_id_fkey FOREIGN KEY (cv_id) REFERENCES cvs(id) ON DELETE CASCADE;
+ALTER TABLE languages DROP CONSTRAINT IF EXISTS languages_cv_id_fkey,
+    ADD CONSTRAINT languages_cv_id_fkey FOREIGN KEY (cv_id) REFERENCES cvs(id) ON DELETE CASCADE;
+
+-- Section loads read WHERE cv_id = ANY(?) ORDER BY cv_id, id, and the count
+-- subqueries of the dashboard summary become index-only scans
+CREATE INDEX IF NOT EXISTS education_cv_id_idx ON education (cv_id, id);
+CREATE INDEX IF NOT EXISTS experience_cv_id_idx ON experience (cv_id, id);
+CREATE INDEX IF NOT EXISTS skills_cv_id_idx ON skills (cv_id, id);
+CREATE INDEX IF NOT EXISTS languages_cv_id_idx ON languages (cv_id, id);
+
+-- Dashboard summary: filter, order and title straight from the index
+CREATE INDEX IF NOT EXISTS cvs_user_updated_idx
+    ON cvs (user_id, updated_at DESC NULLS LAST, id) INCLUDE (title);
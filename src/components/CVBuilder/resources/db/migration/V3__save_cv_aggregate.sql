@@ -0,0 +1,296 @@
+-- Saves a whole CV aggregate in one call, so a save costs one round trip
+-- whatever the number of sections. The payload is the CVJson encoding.
+
+-- The rows of one section array with their position and id (0 for new rows).
+-- A missing or null section is treated as empty.
+CREATE OR REPLACE FUNCTION cv_section_rows(payload jsonb, section text)
+RETURNS TABLE (ord bigint, item jsonb, item_id integer)
+LANGUAGE sql IMMUTABLE AS $$
+    SELECT r.ord, r.item, coalesce((r.item->>'id')::integer, 0)
+    FROM jsonb_array_elements(CASE jsonb_typeof(payload->section)
+                                  WHEN 'array' THEN payload->section
+                                  ELSE '[]'::jsonb END) WITH ORDINALITY AS r(item, ord)
+$$;
+
+-- Inserts the CV when its id is 0, otherwise updates it; returns NULL if the
+-- CV no longer exists. Only what differs from the stored CV is written:
+--   * the header and section rows are updated only when a value changed;
+--   * a section missing from the payload is left as stored, so callers send
+--     only the sections that changed; stored rows missing from a section
+--     that is sent are deleted;
+--   * a payload row whose id is 0 or unknown adopts a stored row with equal
+--     content that no other payload row claims, as the statement path does,
+--     so replaying the same snapshot does not delete and re-insert rows.
+-- updated_at moves only when something was written. The result lists the
+-- ids of the sections present in the payload, in payload order:
+--   {"id": 7, "education": [12, 13], "skills": [40]}
+CREATE OR REPLACE FUNCTION save_cv_aggregate(payload jsonb) RETURNS jsonb
+LANGUAGE plpgsql AS $$
+DECLARE
+    saved_id integer := coalesce((payload->>'id')::integer, 0);
+    created boolean := false;
+    header_changed boolean := false;
+    written bigint := 0;
+    section_written bigint;
+    education_ids jsonb;
+    experience_ids jsonb;
+    skill_ids jsonb;
+    language_ids jsonb;
+BEGIN
+    IF saved_id > 0 THEN
+        PERFORM 1 FROM cvs WHERE id = saved_id FOR UPDATE;
+        IF NOT FOUND THEN
+            RETURN NULL;
+        END IF;
+
+        UPDATE cvs SET title = payload->>'title',
+                       full_name = payload->>'fullName',
+                       email = payload->>'email',
+                       phone = payload->>'phone',
+                       address = payload->>'address',
+                       summary = payload->>'summary',
+                       updated_at = CURRENT_TIMESTAMP
+        WHERE id = saved_id
+          AND (title, full_name, email, phone, address, summary)
+              IS DISTINCT FROM (payload->>'title', payload->>'fullName', payload->>'email',
+                                payload->>'phone', payload->>'address', payload->>'summary');
+        header_changed := FOUND;
+    ELSE
+        INSERT INTO cvs (user_id, title, full_name, email, phone, address, summary)
+        VALUES ((payload->>'userId')::integer, payload->>'title', payload->>'fullName',
+                payload->>'email', payload->>'phone', payload->>'address', payload->>'summary')
+        RETURNING id INTO saved_id;
+        created := true;
+    END IF;
+
+    -- Each section: resolve every payload row to a stored id (by id, else by
+    -- equal content, else a new id), then delete, update and insert in one statement
+    IF payload ? 'education' THEN
+        WITH s AS (
+            SELECT * FROM cv_section_rows(payload, 'education')
+        ), stored AS (
+            SELECT * FROM education WHERE cv_id = saved_id
+        ), known AS (
+            SELECT s.ord, st.id FROM s JOIN stored st ON st.id = s.item_id
+        ), loose_in AS (
+            SELECT s.ord, s.item,
+                   row_number() OVER (PARTITION BY s.item->>'institution', s.item->>'degree',
+                                          s.item->>'fieldOfStudy', (s.item->>'startDate')::date,
+                                          (s.item->>'endDate')::date, s.item->>'description'
+                                      ORDER BY s.ord) AS n
+            FROM s WHERE s.ord NOT IN (SELECT ord FROM known)
+        ), loose_stored AS (
+            SELECT st.*,
+                   row_number() OVER (PARTITION BY st.institution, st.degree, st.field_of_study,
+                                          st.start_date, st.end_date, st.description
+                                      ORDER BY st.id) AS n
+            FROM stored st WHERE st.id NOT IN (SELECT id FROM known)
+        ), adopted AS (
+            SELECT li.ord, ls.id
+            FROM loose_in li JOIN loose_stored ls ON ls.n = li.n
+             AND (ls.institution, ls.degree, ls.field_of_study, ls.start_date, ls.end_date, ls.description)
+                 IS NOT DISTINCT FROM (li.item->>'institution', li.item->>'degree', li.item->>'fieldOfStudy',
+                                       (li.item->>'startDate')::date, (li.item->>'endDate')::date,
+                                       li.item->>'description')
+        ), assigned AS (
+            SELECT s.ord, s.item, k.id IS NOT NULL AS is_known, k.id IS NULL AND a.id IS NULL AS is_new,
+                   coalesce(k.id, a.id, nextval(pg_get_serial_sequence('education', 'id'))::integer) AS id
+            FROM s LEFT JOIN known k ON k.ord = s.ord LEFT JOIN adopted a ON a.ord = s.ord
+        ), deleted AS (
+            DELETE FROM education e
+            WHERE e.cv_id = saved_id AND e.id NOT IN (SELECT id FROM assigned)
+            RETURNING 1
+        ), updated AS (
+            UPDATE education e SET institution = a.item->>'institution',
+                                   degree = a.item->>'degree',
+                                   field_of_study = a.item->>'fieldOfStudy',
+                                   start_date = (a.item->>'startDate')::date,
+                                   end_date = (a.item->>'endDate')::date,
+                                   description = a.item->>'description'
+            FROM assigned a
+            WHERE e.id = a.id AND a.is_known AND e.cv_id = saved_id
+              AND (e.institution, e.degree, e.field_of_study, e.start_date, e.end_date, e.description)
+                  IS DISTINCT FROM (a.item->>'institution', a.item->>'degree', a.item->>'fieldOfStudy',
+                                    (a.item->>'startDate')::date, (a.item->>'endDate')::date,
+                                    a.item->>'description')
+            RETURNING 1
+        ), inserted AS (
+            INSERT INTO education (id, cv_id, institution, degree, field_of_study, start_date, end_date, description)
+            SELECT a.id, saved_id, a.item->>'institution', a.item->>'degree', a.item->>'fieldOfStudy',
+                   (a.item->>'startDate')::date, (a.item->>'endDate')::date, a.item->>'description'
+            FROM assigned a WHERE a.is_new
+            RETURNING 1
+        )
+        SELECT coalesce(jsonb_agg(a.id ORDER BY a.ord), '[]'::jsonb),
+               (SELECT count(*) FROM deleted) + (SELECT count(*) FROM updated) + (SELECT count(*) FROM inserted)
+        INTO education_ids, section_written FROM assigned a;
+        written := written + section_written;
+    END IF;
+
+    IF payload ? 'experience' THEN
+        WITH s AS (
+            SELECT * FROM cv_section_rows(payload, 'experience')
+        ), stored AS (
+            SELECT * FROM experience WHERE cv_id = saved_id
+        ), known AS (
+            SELECT s.ord, st.id FROM s JOIN stored st ON st.id = s.item_id
+        ), loose_in AS (
+            SELECT s.ord, s.item,
+                   row_number() OVER (PARTITION BY s.item->>'company', s.item->>'position',
+                                          s.item->>'location', (s.item->>'startDate')::date,
+                                          (s.item->>'endDate')::date, s.item->>'description'
+                                      ORDER BY s.ord) AS n
+            FROM s WHERE s.ord NOT IN (SELECT ord FROM known)
+        ), loose_stored AS (
+            SELECT st.*,
+                   row_number() OVER (PARTITION BY st.company, st.position, st.location,
+                                          st.start_date, st.end_date, st.description
+                                      ORDER BY st.id) AS n
+            FROM stored st WHERE st.id NOT IN (SELECT id FROM known)
+        ), adopted AS (
+            SELECT li.ord, ls.id
+            FROM loose_in li JOIN loose_stored ls ON ls.n = li.n
+             AND (ls.company, ls.position, ls.location, ls.start_date, ls.end_date, ls.description)
+                 IS NOT DISTINCT FROM (li.item->>'company', li.item->>'position', li.item->>'location',
+                                       (li.item->>'startDate')::date, (li.item->>'endDate')::date,
+                                       li.item->>'description')
+        ), assigned AS (
+            SELECT s.ord, s.item, k.id IS NOT NULL AS is_known, k.id IS NULL AND a.id IS NULL AS is_new,
+                   coalesce(k.id, a.id, nextval(pg_get_serial_sequence('experience', 'id'))::integer) AS id
+            FROM s LEFT JOIN known k ON k.ord = s.ord LEFT JOIN adopted a ON a.ord = s.ord
+        ), deleted AS (
+            DELETE FROM experience e
+            WHERE e.cv_id = saved_id AND e.id NOT IN (SELECT id FROM assigned)
+            RETURNING 1
+        ), updated AS (
+            UPDATE experience e SET company = a.item->>'company',
+                                    position = a.item->>'position',
+                                    location = a.item->>'location',
+                                    start_date = (a.item->>'startDate')::date,
+                                    end_date = (a.item->>'endDate')::date,
+                                    description = a.item->>'description'
+            FROM assigned a
+            WHERE e.id = a.id AND a.is_known AND e.cv_id = saved_id
+              AND (e.company, e.position, e.location, e.start_date, e.end_date, e.description)
+                  IS DISTINCT FROM (a.item->>'company', a.item->>'position', a.item->>'location',
+                                    (a.item->>'startDate')::date, (a.item->>'endDate')::date,
+                                    a.item->>'description')
+            RETURNING 1
+        ), inserted AS (
+            INSERT INTO experience (id, cv_id, company, position, location, start_date, end_date, description)
+            SELECT a.id, saved_id, a.item->>'company', a.item->>'position', a.item->>'location',
+                   (a.item->>'startDate')::date, (a.item->>'endDate')::date, a.item->>'description'
+            FROM assigned a WHERE a.is_new
+            RETURNING 1
+        )
+        SELECT coalesce(jsonb_agg(a.id ORDER BY a.ord), '[]'::jsonb),
+               (SELECT count(*) FROM deleted) + (SELECT count(*) FROM updated) + (SELECT count(*) FROM inserted)
+        INTO experience_ids, section_written FROM assigned a;
+        written := written + section_written;
+    END IF;
+
+    IF payload ? 'skills' THEN
+        WITH s AS (
+            SELECT * FROM cv_section_rows(payload, 'skills')
+        ), stored AS (
+            SELECT * FROM skills WHERE cv_id = saved_id
+        ), known AS (
+            SELECT s.ord, st.id FROM s JOIN stored st ON st.id = s.item_id
+        ), loose_in AS (
+            SELECT s.ord, s.item,
+                   row_number() OVER (PARTITION BY s.item->>'name', (s.item->>'level')::integer
+                                      ORDER BY s.ord) AS n
+            FROM s WHERE s.ord NOT IN (SELECT ord FROM known)
+        ), loose_stored AS (
+            SELECT st.*,
+                   row_number() OVER (PARTITION BY st.name, st.level ORDER BY st.id) AS n
+            FROM stored st WHERE st.id NOT IN (SELECT id FROM known)
+        ), adopted AS (
+            SELECT li.ord, ls.id
+            FROM loose_in li JOIN loose_stored ls ON ls.n = li.n
+             AND (ls.name, ls.level) IS NOT DISTINCT FROM (li.item->>'name', (li.item->>'level')::integer)
+        ), assigned AS (
+            SELECT s.ord, s.item, k.id IS NOT NULL AS is_known, k.id IS NULL AND a.id IS NULL AS is_new,
+                   coalesce(k.id, a.id, nextval(pg_get_serial_sequence('skills', 'id'))::integer) AS id
+            FROM s LEFT JOIN known k ON k.ord = s.ord LEFT JOIN adopted a ON a.ord = s.ord
+        ), deleted AS (
+            DELETE FROM skills k
+            WHERE k.cv_id = saved_id AND k.id NOT IN (SELECT id FROM assigned)
+            RETURNING 1
+        ), updated AS (
+            UPDATE skills k SET name = a.item->>'name',
+                                level = (a.item->>'level')::integer
+            FROM assigned a
+            WHERE k.id = a.id AND a.is_known AND k.cv_id = saved_id
+              AND (k.name, k.level) IS DISTINCT FROM (a.item->>'name', (a.item->>'level')::integer)
+            RETURNING 1
+        ), inserted AS (
+            INSERT INTO skills (id, cv_id, name, level)
+            SELECT a.id, saved_id, a.item->>'name', (a.item->>'level')::integer
+            FROM assigned a WHERE a.is_new
+            RETURNING 1
+        )
+        SELECT coalesce(jsonb_agg(a.id ORDER BY a.ord), '[]'::jsonb),
+               (SELECT count(*) FROM deleted) + (SELECT count(*) FROM updated) + (SELECT count(*) FROM inserted)
+        INTO skill_ids, section_written FROM assigned a;
+        written := written + section_written;
+    END IF;
+
+    IF payload ? 'languages' THEN
+        WITH s AS (
+            SELECT * FROM cv_section_rows(payload, 'languages')
+        ), stored AS (
+            SELECT * FROM languages WHERE cv_id = saved_id
+        ), known AS (
+            SELECT s.ord, st.id FROM s JOIN stored st ON st.id = s.item_id
+        ), loose_in AS (
+            SELECT s.ord, s.item,
+                   row_number() OVER (PARTITION BY s.item->>'name', s.item->>'proficiency'
+                                      ORDER BY s.ord) AS n
+            FROM s WHERE s.ord NOT IN (SELECT ord FROM known)
+        ), loose_stored AS (
+            SELECT st.*,
+                   row_number() OVER (PARTITION BY st.name, st.proficiency ORDER BY st.id) AS n
+            FROM stored st WHERE st.id NOT IN (SELECT id FROM known)
+        ), adopted AS (
+            SELECT li.ord, ls.id
+            FROM loose_in li JOIN loose_stored ls ON ls.n = li.n
+             AND (ls.name, ls.proficiency) IS NOT DISTINCT FROM (li.item->>'name', li.item->>'proficiency')
+        ), assigned AS (
+            SELECT s.ord, s.item, k.id IS NOT NULL AS is_known, k.id IS NULL AND a.id IS NULL AS is_new,
+                   coalesce(k.id, a.id, nextval(pg_get_serial_sequence('languages', 'id'))::integer) AS id
+            FROM s LEFT JOIN known k ON k.ord = s.ord LEFT JOIN adopted a ON a.ord = s.ord
+        ), deleted AS (
+            DELETE FROM languages l
+            WHERE l.cv_id = saved_id AND l.id NOT IN (SELECT id FROM assigned)
+            RETURNING 1
+        ), updated AS (
+            UPDATE languages l SET name = a.item->>'name',
+                                   proficiency = a.item->>'proficiency'
+            FROM assigned a
+            WHERE l.id = a.id AND a.is_known AND l.cv_id = saved_id
+              AND (l.name, l.proficiency) IS DISTINCT FROM (a.item->>'name', a.item->>'proficiency')
+            RETURNING 1
+        ), inserted AS (
+            INSERT INTO languages (id, cv_id, name, proficiency)
+            SELECT a.id, saved_id, a.item->>'name', a.item->>'proficiency'
+            FROM assigned a WHERE a.is_new
+            RETURNING 1
+        )
+        SELECT coalesce(jsonb_agg(a.id ORDER BY a.ord), '[]'::jsonb),
+               (SELECT count(*) FROM deleted) + (SELECT count(*) FROM updated) + (SELECT count(*) FROM inserted)
+        INTO language_ids, section_written FROM assigned a;
+        written := written + section_written;
+    END IF;
+
+    IF NOT created AND NOT header_changed AND written > 0 THEN
+        UPDATE cvs SET updated_at = CURRENT_TIMESTAMP WHERE id = saved_id;
+    END IF;
+
+    RETURN jsonb_strip_nulls(jsonb_build_object('id', saved_id,
+                                                'education', education_ids,
+                                                'experience', experience_ids,
+                                                'skills', skill_ids,
+                                                'languages', language_ids));
+END;
+$$;
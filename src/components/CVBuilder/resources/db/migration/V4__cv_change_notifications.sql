@@ -0,0 +1,90 @@
+-- Tells other application instances which CVs changed, so they can evict
+-- their caches. The payload on channel cv_changes is "<cv id>,<user id>"
+-- (the user id is empty when the CV is already gone). Notifications are only
+-- delivered on commit, and identical payloads in one transaction are sent
+-- once.
+--
+-- The triggers run once per statement, not per row: a multi-row insert, a
+-- delete or a cascade sends one notification per distinct CV, with one join
+-- to cvs for the owners. Transition tables are only allowed on single-event
+-- triggers, so every table has one trigger per event, all running the same
+-- function.
+
+CREATE OR REPLACE FUNCTION notify_cv_change() RETURNS trigger
+LANGUAGE plpgsql AS $$
+BEGIN
+    -- Only the transition tables declared for the firing event exist, hence one branch per event
+    IF TG_TABLE_NAME = 'cvs' THEN
+        IF TG_OP = 'INSERT' THEN
+            PERFORM pg_notify('cv_changes', c.id || ',' || coalesce(c.user_id::text, ''))
+            FROM (SELECT DISTINCT id, user_id FROM new_rows) c;
+        ELSIF TG_OP = 'UPDATE' THEN
+            PERFORM pg_notify('cv_changes', c.id || ',' || coalesce(c.user_id::text, ''))
+            FROM (SELECT id, user_id FROM new_rows UNION SELECT id, user_id FROM old_rows) c;
+        ELSE
+            PERFORM pg_notify('cv_changes', c.id || ',' || coalesce(c.user_id::text, ''))
+            FROM (SELECT DISTINCT id, user_id FROM old_rows) c;
+        END IF;
+    ELSIF TG_OP = 'INSERT' THEN
+        PERFORM pg_notify('cv_changes', changed.cv_id || ',' || coalesce(c.user_id::text, ''))
+        FROM (SELECT DISTINCT cv_id FROM new_rows WHERE cv_id IS NOT NULL) changed
+        LEFT JOIN cvs c ON c.id = changed.cv_id;
+    ELSIF TG_OP = 'UPDATE' THEN
+        PERFORM pg_notify('cv_changes', changed.cv_id || ',' || coalesce(c.user_id::text, ''))
+        FROM (SELECT cv_id FROM new_rows WHERE cv_id IS NOT NULL
+              UNION SELECT cv_id FROM old_rows WHERE cv_id IS NOT NULL) changed
+        LEFT JOIN cvs c ON c.id = changed.cv_id;
+    ELSE
+        PERFORM pg_notify('cv_changes', changed.cv_id || ',' || coalesce(c.user_id::text, ''))
+        FROM (SELECT DISTINCT cv_id FROM old_rows WHERE cv_id IS NOT NULL) changed
+        LEFT JOIN cvs c ON c.id = changed.cv_id;
+    END IF;
+    RETURN NULL;
+END;
+$$;
+
+DROP TRIGGER IF EXISTS cvs_notify_insert ON cvs;
+CREATE TRIGGER cvs_notify_insert AFTER INSERT ON cvs REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_cv_change();
+DROP TRIGGER IF EXISTS cvs_notify_update ON cvs;
+CREATE TRIGGER cvs_notify_update AFTER UPDATE ON cvs REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_cv_change();
+DROP TRIGGER IF EXISTS cvs_notify_delete ON cvs;
+CREATE TRIGGER cvs_notify_delete AFTER DELETE ON cvs REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_cv_change();
+DROP TRIGGER IF EXISTS education_notify_insert ON education;
+CREATE TRIGGER education_notify_insert AFTER INSERT ON education REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_cv_change();
+DROP TRIGGER IF EXISTS education_notify_update ON education;
+CREATE TRIGGER education_notify_update AFTER UPDATE ON education REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_cv_change();
+DROP TRIGGER IF EXISTS education_notify_delete ON education;
+CREATE TRIGGER education_notify_delete AFTER DELETE ON education REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_cv_change();
+DROP TRIGGER IF EXISTS experience_notify_insert ON experience;
+CREATE TRIGGER experience_notify_insert AFTER INSERT ON experience REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_cv_change();
+DROP TRIGGER IF EXISTS experience_notify_update ON experience;
+CREATE TRIGGER experience_notify_update AFTER UPDATE ON experience REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_cv_change();
+DROP TRIGGER IF EXISTS experience_notify_delete ON experience;
+CREATE TRIGGER experience_notify_delete AFTER DELETE ON experience REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_cv_change();
+DROP TRIGGER IF EXISTS skills_notify_insert ON skills;
+CREATE TRIGGER skills_notify_insert AFTER INSERT ON skills REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_cv_change();
+DROP TRIGGER IF EXISTS skills_notify_update ON skills;
+CREATE TRIGGER skills_notify_update AFTER UPDATE ON skills REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_cv_change();
+DROP TRIGGER IF EXISTS skills_notify_delete ON skills;
+CREATE TRIGGER skills_notify_delete AFTER DELETE ON skills REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_cv_change();
+DROP TRIGGER IF EXISTS languages_notify_insert ON languages;
+CREATE TRIGGER languages_notify_insert AFTER INSERT ON languages REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_cv_change();
+DROP TRIGGER IF EXISTS languages_notify_update ON languages;
+CREATE TRIGGER languages_notify_update AFTER UPDATE ON languages REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_cv_change();
+DROP TRIGGER IF EXISTS languages_notify_delete ON languages;
+CREATE TRIGGER languages_notify_delete AFTER DELETE ON languages REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_cv_change();
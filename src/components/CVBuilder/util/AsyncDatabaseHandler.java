@@ -0,0 +1,205 @@
+package components.CVBuilder.util;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import components.CVBuilder.model.CV;
+import components.CVBuilder.model.CVSummary;
+import components.CVBuilder.model.User;
+import javafx.application.Platform;
+
+/**
+ * Non-blocking facade over the configured {@link CVRepository} for the JavaFX controllers.
+ *
+ * Every call runs on a background executor (virtual threads when the runtime
+ * provides them) and its future completes on the FX application thread, so
+ * callbacks may touch the UI directly. Cancelling a read interrupts the
+ * worker and discards its result; reads that exceed their timeout complete
+ * with a {@link TimeoutException}.
+ *
+ * Writes have neither: interrupting the thread does not stop a statement
+ * the server is already running, so a write given up on could still commit
+ * after a failure was reported. They run to completion, bounded by the
+ * driver's socket timeout. Writes of a CV work on a copy, and the ids it was
+ * given are applied to the caller's CV on the FX thread once it succeeded.
+ */
+public class AsyncDatabaseHandler {
+    private static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(15);
+
+    private static AsyncDatabaseHandler instance;
+
+    private final ExecutorService executor;
+    private final ScheduledExecutorService timer;
+    private final Duration timeout;
+
+    public static synchronized AsyncDatabaseHandler getInstance() {
+        if (instance == null) {
+            ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "db-async-timeout");
+                thread.setDaemon(true);
+                return thread;
+            });
+            instance = new AsyncDatabaseHandler(createExecutor(), timer, DEFAULT_TIMEOUT);
+        }
+        return instance;
+    }
+
+    private AsyncDatabaseHandler(ExecutorService executor, ScheduledExecutorService timer, Duration timeout) {
+        this.executor = executor;
+        this.timer = timer;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Returns a view of this facade whose reads time out after the given duration.
+     */
+    public AsyncDatabaseHandler withTimeout(Duration timeout) {
+        return new AsyncDatabaseHandler(executor, timer, timeout);
+    }
+
+    // User operations
+    public CompletableFuture<Boolean> registerUser(User user) {
+        return submitWrite(() -> Repositories.get().registerUser(user));
+    }
+
+    public CompletableFuture<User> loginUser(String username, String password) {
+        return submit(() -> Repositories.get().loginUser(username, password));
+    }
+
+    // CV operations
+    public CompletableFuture<Integer> createCV(CV cv) {
+        CV copy = cv.copy();
+        return submitWrite(() -> Repositories.get().createCV(copy)).thenApply(cvId -> {
+            if (cvId > 0) {
+                applySaved(cv, copy);
+            }
+            return cvId;
+        });
+    }
+
+    public CompletableFuture<Boolean> updateCV(CV cv) {
+        CV copy = cv.copy();
+        return submitWrite(() -> Repositories.get().updateCV(copy)).thenApply(updated -> {
+            if (updated) {
+                applySaved(cv, copy);
+            }
+            return updated;
+        });
+    }
+
+    // Unflushed edits of deleted CVs are dropped from the edit journal
+    public CompletableFuture<Boolean> deleteCV(int cvId) {
+        return submitWrite(() -> EditJournal.deleting(List.of(cvId), () -> Repositories.get().deleteCV(cvId)));
+    }
+
+    public CompletableFuture<Integer> deleteCVs(Collection<Integer> cvIds) {
+        return submitWrite(() -> EditJournal.deleting(cvIds, () -> Repositories.get().deleteCVs(cvIds)));
+    }
+
+    public CompletableFuture<List<CV>> getCVsByUserId(int userId) {
+        return submit(() -> Repositories.get().getCVsByUserId(userId));
+    }
+
+    public CompletableFuture<List<CVSummary>> getCVSummariesByUserId(int userId) {
+        return submit(() -> Repositories.get().getCVSummariesByUserId(userId));
+    }
+
+    public CompletableFuture<CV> getCVById(int cvId) {
+        return submit(() -> Repositories.get().getCVById(cvId));
+    }
+
+    /**
+     * Runs other long work of the controllers, e.g. rendering a PDF, on the
+     * same executor. Like writes, it is neither timed out nor interrupted.
+     */
+    public <T> CompletableFuture<T> runInBackground(Callable<T> work) {
+        return submitWrite(work);
+    }
+
+    /**
+     * Strips the {@link CompletionException}/{@link ExecutionException} wrappers
+     * added by dependent stages so callers can inspect the original failure.
+     */
+    public static Throwable unwrap(Throwable error) {
+        while ((error instanceof CompletionException || error instanceof ExecutionException)
+                && error.getCause() != null) {
+            error = error.getCause();
+        }
+        return error;
+    }
+
+    // Runs on the FX thread, after the write succeeded; the caller's CV was not edited meanwhile
+    private static void applySaved(CV cv, CV saved) {
+        cv.setId(saved.getId());
+        cv.adoptIds(saved);
+        cv.markClean();
+    }
+
+    private <T> CompletableFuture<T> submit(Callable<T> work) {
+        return submit(work, true);
+    }
+
+    private <T> CompletableFuture<T> submitWrite(Callable<T> work) {
+        return submit(work, false);
+    }
+
+    private <T> CompletableFuture<T> submit(Callable<T> work, boolean interruptible) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+
+        Future<?> task = executor.submit(() -> {
+            try {
+                T value = work.call();
+                Platform.runLater(() -> result.complete(value));
+            } catch (Throwable e) {
+                Platform.runLater(() -> result.completeExceptionally(e));
+            }
+        });
+
+        if (!interruptible) {
+            return result;
+        }
+
+        ScheduledFuture<?> deadline = timer.schedule(() -> Platform.runLater(() -> {
+            if (result.completeExceptionally(new TimeoutException(
+                    "Database call did not finish within " + timeout.toMillis() + " ms"))) {
+                task.cancel(true);
+            }
+        }), timeout.toMillis(), TimeUnit.MILLISECONDS);
+
+        result.whenComplete((value, error) -> {
+            deadline.cancel(false);
+            if (result.isCancelled()) {
+                task.cancel(true);
+            }
+        });
+
+        return result;
+    }
+
+    private static ExecutorService createExecutor() {
+        // Virtual threads are only available on Java 21+; the app still targets 17
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            AtomicInteger counter = new AtomicInteger();
+            return Executors.newCachedThreadPool(r -> {
+                Thread thread = new Thread(r, "db-async-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+}
@@ -0,0 +1,461 @@
+package components.CVBuilder.util;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+
+import components.CVBuilder.model.CV;
+import components.CVBuilder.model.Education;
+import components.CVBuilder.model.Experience;
+import components.CVBuilder.model.Language;
+import components.CVBuilder.model.Skill;
+
+/**
+ * Bulk import of CV aggregates into PostgreSQL.
+ *
+ * Records are processed in chunks. Each chunk is validated in parallel with
+ * {@link ValidationUtil} (plus the column length limits read from the
+ * schema), streamed with {@code COPY ... FROM STDIN} into temporary staging
+ * tables, and moved into {@code cvs} and the section tables with one
+ * set-based INSERT per table, all in one transaction per chunk. Invalid
+ * records are skipped and reported in the {@link Result} instead of failing
+ * the batch; if a chunk fails in the database only that chunk is lost.
+ */
+public class CVBulkImporter {
+    private static final int DEFAULT_CHUNK_SIZE = 5_000;
+    private static final int COPY_BUFFER_CHARS = 64 * 1024;
+
+    public enum Phase { VALIDATING, LOADING, DONE }
+
+    /**
+     * Receives progress updates. Validation runs on several threads, so the
+     * listener may be called from any of them.
+     */
+    public interface ProgressListener {
+        void onProgress(Phase phase, int processed, int total);
+    }
+
+    private final DatabaseHandler database;
+    private final int chunkSize;
+
+    public CVBulkImporter(DatabaseHandler database) {
+        this(database, DEFAULT_CHUNK_SIZE);
+    }
+
+    public CVBulkImporter(DatabaseHandler database, int chunkSize) {
+        this.database = database;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Imports the CVs and sets the generated id on every imported one.
+     * Records are identified in errors by their position in the collection.
+     */
+    public Result importCVs(Collection<CV> cvs, ProgressListener listener) throws SQLException {
+        List<CV> records = new ArrayList<>(cvs);
+        ProgressListener progress = listener != null ? listener : (phase, processed, total) -> { };
+        Result result = new Result(records.size());
+
+        Map<String, Integer> limits;
+        try (Connection connection = database.getConnection()) {
+            limits = columnLimits(connection);
+        }
+
+        AtomicInteger validated = new AtomicInteger();
+        for (int start = 0; start < records.size(); start += chunkSize) {
+            int end = Math.min(start + chunkSize, records.size());
+
+            List<Integer> valid = validate(records, start, end, limits, result, validated, progress);
+            if (!valid.isEmpty()) {
+                try {
+                    load(records, valid, result);
+                } catch (SQLException e) {
+                    String message = "Chunk failed: " + e.getMessage();
+                    for (int index : valid) {
+                        result.addError(index, records.get(index), message);
+                    }
+                }
+            }
+
+            progress.onProgress(Phase.LOADING, end, records.size());
+        }
+
+        progress.onProgress(Phase.DONE, records.size(), records.size());
+        return result;
+    }
+
+    private List<Integer> validate(List<CV> records, int start, int end, Map<String, Integer> limits,
+                                   Result result, AtomicInteger validated, ProgressListener progress) {
+        int total = records.size();
+        int reportEvery = Math.max(1, total / 100);
+
+        // Errors by index; the parallel stream only collects, the result is filled afterwards
+        Map<Integer, String> errors = Collections.synchronizedMap(new HashMap<>());
+        IntStream.range(start, end).parallel().forEach(index -> {
+            try {
+                CV cv = records.get(index);
+                ValidationUtil.validateCVAggregate(cv);
+                checkLengths(cv, limits);
+            } catch (IllegalArgumentException e) {
+                errors.put(index, e.getMessage());
+            }
+            int done = validated.incrementAndGet();
+            if (done % reportEvery == 0 || done == total) {
+                progress.onProgress(Phase.VALIDATING, done, total);
+            }
+        });
+
+        List<Integer> valid = new ArrayList<>();
+        for (int index = start; index < end; index++) {
+            String error = errors.get(index);
+            if (error != null) {
+                result.addError(index, records.get(index), error);
+            } else {
+                valid.add(index);
+            }
+        }
+        return valid;
+    }
+
+    private void load(List<CV> records, List<Integer> valid, Result result) throws SQLException {
+        Map<Integer, Integer> cvIds = new HashMap<>();
+        Set<Integer> userIds = new HashSet<>();
+
+        try (Connection connection = database.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                try (Statement statement = connection.createStatement()) {
+                    createStagingTables(statement);
+                }
+
+                copyStaging(connection, records, valid);
+
+                try (Statement statement = connection.createStatement()) {
+                    moveStaging(statement);
+                    try (ResultSet resultSet = statement.executeQuery(
+                            "SELECT i.seq, i.cv_id, s.user_id FROM import_ids i JOIN import_cvs s USING (seq)")) {
+                        while (resultSet.next()) {
+                            cvIds.put(resultSet.getInt("seq"), resultSet.getInt("cv_id"));
+                            userIds.add(resultSet.getInt("user_id"));
+                        }
+                    }
+                }
+
+                connection.commit();
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            }
+        }
+
+        for (int index : valid) {
+            Integer cvId = cvIds.get(index);
+            if (cvId == null) {
+                // Filtered out by the join on users
+                result.addError(index, records.get(index), "User does not exist");
+            } else {
+                records.get(index).setId(cvId);
+                result.imported++;
+            }
+        }
+        for (int userId : userIds) {
+            database.invalidateUser(userId);
+        }
+    }
+
+    private static void createStagingTables(Statement statement) throws SQLException {
+        // Dropped automatically when the chunk's transaction ends
+        statement.execute("CREATE TEMP TABLE import_cvs (seq INTEGER, user_id INTEGER, title TEXT, " +
+                "full_name TEXT, email TEXT, phone TEXT, address TEXT, summary TEXT) ON COMMIT DROP");
+        statement.execute("CREATE TEMP TABLE import_education (seq INTEGER, pos INTEGER, institution TEXT, " +
+                "degree TEXT, field_of_study TEXT, start_date DATE, end_date DATE, description TEXT) ON COMMIT DROP");
+        statement.execute("CREATE TEMP TABLE import_experience (seq INTEGER, pos INTEGER, company TEXT, " +
+                "position TEXT, location TEXT, start_date DATE, end_date DATE, description TEXT) ON COMMIT DROP");
+        statement.execute("CREATE TEMP TABLE import_skills (seq INTEGER, pos INTEGER, name TEXT, level INTEGER) " +
+                "ON COMMIT DROP");
+        statement.execute("CREATE TEMP TABLE import_languages (seq INTEGER, pos INTEGER, name TEXT, proficiency TEXT) " +
+                "ON COMMIT DROP");
+    }
+
+    private static void copyStaging(Connection connection, List<CV> records, List<Integer> valid)
+            throws SQLException {
+        CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+
+        try (CopyWriter out = new CopyWriter(copyManager, "import_cvs")) {
+            for (int index : valid) {
+                CV cv = records.get(index);
+                out.row(index, cv.getUserId(), cv.getTitle(), cv.getFullName(), cv.getEmail(),
+                        cv.getPhone(), cv.getAddress(), cv.getSummary());
+            }
+        }
+        try (CopyWriter out = new CopyWriter(copyManager, "import_education")) {
+            for (int index : valid) {
+                int pos = 0;
+                for (Education edu : records.get(index).getEducation()) {
+                    out.row(index, pos++, edu.getInstitution(), edu.getDegree(), edu.getFieldOfStudy(),
+                            edu.getStartDate(), edu.getEndDate(), edu.getDescription());
+                }
+            }
+        }
+        try (CopyWriter out = new CopyWriter(copyManager, "import_experience")) {
+            for (int index : valid) {
+                int pos = 0;
+                for (Experience exp : records.get(index).getExperience()) {
+                    out.row(index, pos++, exp.getCompany(), exp.getPosition(), exp.getLocation(),
+                            exp.getStartDate(), exp.getEndDate(), exp.getDescription());
+                }
+            }
+        }
+        try (CopyWriter out = new CopyWriter(copyManager, "import_skills")) {
+            for (int index : valid) {
+                int pos = 0;
+                for (Skill skill : records.get(index).getSkills()) {
+                    out.row(index, pos++, skill.getName(), skill.getLevel());
+                }
+            }
+        }
+        try (CopyWriter out = new CopyWriter(copyManager, "import_languages")) {
+            for (int index : valid) {
+                int pos = 0;
+                for (Language language : records.get(index).getLanguages()) {
+                    out.row(index, pos++, language.getName(), language.getProficiency());
+                }
+            }
+        }
+    }
+
+    private static void moveStaging(Statement statement) throws SQLException {
+        // Reserve CV ids up front so the section rows can be joined to them
+        statement.execute("CREATE TEMP TABLE import_ids ON COMMIT DROP AS " +
+                "SELECT s.seq, nextval(pg_get_serial_sequence('cvs', 'id'))::integer AS cv_id " +
+                "FROM import_cvs s JOIN users u ON u.id = s.user_id ORDER BY s.seq");
+
+        statement.executeUpdate("INSERT INTO cvs (id, user_id, title, full_name, email, phone, address, summary) " +
+                "SELECT i.cv_id, s.user_id, s.title, s.full_name, s.email, s.phone, s.address, s.summary " +
+                "FROM import_cvs s JOIN import_ids i USING (seq) ORDER BY i.cv_id");
+        statement.executeUpdate("INSERT INTO education " +
+                "(cv_id, institution, degree, field_of_study, start_date, end_date, description) " +
+                "SELECT i.cv_id, e.institution, e.degree, e.field_of_study, e.start_date, e.end_date, e.description " +
+                "FROM import_education e JOIN import_ids i USING (seq) ORDER BY i.cv_id, e.pos");
+        statement.executeUpdate("INSERT INTO experience " +
+                "(cv_id, company, position, location, start_date, end_date, description) " +
+                "SELECT i.cv_id, x.company, x.position, x.location, x.start_date, x.end_date, x.description " +
+                "FROM import_experience x JOIN import_ids i USING (seq) ORDER BY i.cv_id, x.pos");
+        statement.executeUpdate("INSERT INTO skills (cv_id, name, level) " +
+                "SELECT i.cv_id, s.name, s.level FROM import_skills s JOIN import_ids i USING (seq) " +
+                "ORDER BY i.cv_id, s.pos");
+        statement.executeUpdate("INSERT INTO languages (cv_id, name, proficiency) " +
+                "SELECT i.cv_id, l.name, l.proficiency FROM import_languages l JOIN import_ids i USING (seq) " +
+                "ORDER BY i.cv_id, l.pos");
+    }
+
+    /**
+     * Maximum lengths of the VARCHAR columns, keyed as {@code table.column},
+     * so over-long values are reported per record instead of failing the load.
+     */
+    private static Map<String, Integer> columnLimits(Connection connection) throws SQLException {
+        Map<String, Integer> limits = new HashMap<>();
+        String query = "SELECT table_name, column_name, character_maximum_length FROM information_schema.columns " +
+                       "WHERE table_schema = current_schema() AND character_maximum_length IS NOT NULL " +
+                       "AND table_name IN ('cvs', 'education', 'experience', 'skills', 'languages')";
+
+        try (PreparedStatement statement = connection.prepareStatement(query);
+             ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                limits.put(resultSet.getString("table_name") + "." + resultSet.getString("column_name"),
+                        resultSet.getInt("character_maximum_length"));
+            }
+        }
+        return limits;
+    }
+
+    private static void checkLengths(CV cv, Map<String, Integer> limits) {
+        checkLength(limits, "cvs", "title", cv.getTitle());
+        checkLength(limits, "cvs", "full_name", cv.getFullName());
+        checkLength(limits, "cvs", "email", cv.getEmail());
+        checkLength(limits, "cvs", "phone", cv.getPhone());
+        for (Education edu : cv.getEducation()) {
+            checkLength(limits, "education", "institution", edu.getInstitution());
+            checkLength(limits, "education", "degree", edu.getDegree());
+            checkLength(limits, "education", "field_of_study", edu.getFieldOfStudy());
+        }
+        for (Experience exp : cv.getExperience()) {
+            checkLength(limits, "experience", "company", exp.getCompany());
+            checkLength(limits, "experience", "position", exp.getPosition());
+            checkLength(limits, "experience", "location", exp.getLocation());
+        }
+        for (Skill skill : cv.getSkills()) {
+            checkLength(limits, "skills", "name", skill.getName());
+        }
+        for (Language language : cv.getLanguages()) {
+            checkLength(limits, "languages", "name", language.getName());
+            checkLength(limits, "languages", "proficiency", language.getProficiency());
+        }
+    }
+
+    private static void checkLength(Map<String, Integer> limits, String table, String column, String value) {
+        Integer limit = limits.get(table + "." + column);
+        if (value != null && limit != null && value.length() > limit) {
+            throw new IllegalArgumentException(table + "." + column + " is longer than " + limit + " characters");
+        }
+    }
+
+    /**
+     * Streams rows in COPY text format, flushing to the server in fixed-size blocks.
+     */
+    private static final class CopyWriter implements AutoCloseable {
+        private final CopyIn copyIn;
+        private final StringBuilder buffer = new StringBuilder(COPY_BUFFER_CHARS);
+
+        CopyWriter(CopyManager copyManager, String table) throws SQLException {
+            this.copyIn = copyManager.copyIn("COPY " + table + " FROM STDIN");
+        }
+
+        void row(Object... values) throws SQLException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    buffer.append('\t');
+                }
+                appendValue(buffer, values[i]);
+            }
+            buffer.append('\n');
+
+            if (buffer.length() >= COPY_BUFFER_CHARS) {
+                flush();
+            }
+        }
+
+        private void flush() throws SQLException {
+            if (buffer.length() > 0) {
+                byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+                copyIn.writeToCopy(bytes, 0, bytes.length);
+                buffer.setLength(0);
+            }
+        }
+
+        @Override
+        public void close() throws SQLException {
+            if (!copyIn.isActive()) {
+                return;
+            }
+            try {
+                flush();
+                copyIn.endCopy();
+            } finally {
+                if (copyIn.isActive()) {
+                    copyIn.cancelCopy();
+                }
+            }
+        }
+
+        private static void appendValue(StringBuilder line, Object value) {
+            if (value == null) {
+                line.append("\\N");
+                return;
+            }
+            if (value instanceof LocalDate || value instanceof Number) {
+                line.append(value);
+                return;
+            }
+            String text = value.toString();
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                switch (c) {
+                    case '\\': line.append("\\\\"); break;
+                    case '\t': line.append("\\t"); break;
+                    case '\n': line.append("\\n"); break;
+                    case '\r': line.append("\\r"); break;
+                    default: line.append(c);
+                }
+            }
+        }
+    }
+
+    /**
+     * Outcome of an import: how many CVs were stored and why the others were not.
+     */
+    public static final class Result {
+        private final int total;
+        private int imported;
+        private final List<ImportError> errors = new ArrayList<>();
+
+        Result(int total) {
+            this.total = total;
+        }
+
+        void addError(int index, CV cv, String message) {
+            errors.add(new ImportError(index, cv.getTitle(), message));
+        }
+
+        public int getTotal() {
+            return total;
+        }
+
+        public int getImported() {
+            return imported;
+        }
+
+        public List<ImportError> getErrors() {
+            return Collections.unmodifiableList(errors);
+        }
+
+        @Override
+        public String toString() {
+            return "imported " + imported + " of " + total + ", " + errors.size() + " error(s)";
+        }
+    }
+
+    public static final class ImportError {
+        private final int index;
+        private final String title;
+        private final String message;
+
+        ImportError(int index, String title, String message) {
+            this.index = index;
+            this.title = title;
+            this.message = message;
+        }
+
+        /**
+         * Position of the record in the imported collection.
+         */
+        public int getIndex() {
+            return index;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+
+        /**
+         * A bundle key such as {@code error.email_format} for validation
+         * failures, otherwise a plain message.
+         */
+        public String getMessage() {
+            return message;
+        }
+
+        @Override
+        public String toString() {
+            return "#" + index + " (" + title + "): " + message;
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package components.CVBuilder.util;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.IntPredicate;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+
+/**
+ * Follows the {@value #CHANNEL} channel (see V4__cv_change_notifications.sql)
+ * on a dedicated connection and tells listeners which CVs other clients have
+ * saved or deleted, so that caches and open views do not go stale when
+ * several application instances share one database.
+ *
+ * Listeners are called on the notifier's own thread, in registration order,
+ * with all changes received in one poll. Changes made through our own pool
+ * are skipped; the writer already knows about them. After the connection is
+ * lost, notifications sent in the meantime are gone, so listeners are told
+ * to drop everything with {@link Listener#changesMissed()} once it is back.
+ */
+public class CVChangeNotifier implements AutoCloseable {
+    public static final String CHANNEL = "cv_changes";
+
+    private static final int POLL_MILLIS = 1_000;
+    // Idle time after which the connection is validated; a silently dropped socket never wakes the poll
+    private static final long VALIDATE_AFTER_MILLIS = 30_000;
+    private static final long MIN_BACKOFF_MILLIS = 1_000;
+    private static final long MAX_BACKOFF_MILLIS = 30_000;
+
+    /**
+     * Receives the ids of CVs changed by other clients. {@code userIds} holds
+     * the owners where known; a deleted CV's sections do not name one.
+     */
+    public interface Listener {
+        void cvsChanged(Set<Integer> cvIds, Set<Integer> userIds);
+
+        /**
+         * Notifications may have been lost while the connection was down.
+         */
+        default void changesMissed() {
+        }
+    }
+
+    private static CVChangeNotifier instance;
+
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private Thread thread;
+    private volatile boolean closed;
+
+    public static synchronized CVChangeNotifier getInstance() {
+        if (instance == null) {
+            instance = new CVChangeNotifier();
+        }
+        return instance;
+    }
+
+    private CVChangeNotifier() {
+    }
+
+    /**
+     * Starts listening in the background; later calls have no effect.
+     * {@code ownBackend} recognises the server processes of our own
+     * connections by pid.
+     */
+    public synchronized void start(String url, Properties connectionProperties, IntPredicate ownBackend) {
+        if (thread != null || closed) {
+            return;
+        }
+        thread = new Thread(() -> run(url, connectionProperties, ownBackend), "db-change-listener");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    @Override
+    public synchronized void close() {
+        closed = true;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    private void run(String url, Properties connectionProperties, IntPredicate ownBackend) {
+        boolean connectedBefore = false;
+        long backoff = MIN_BACKOFF_MILLIS;
+
+        while (!closed) {
+            try (Connection connection = DriverManager.getConnection(url, connectionProperties)) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                if (connectedBefore) {
+                    System.out.println("✅ Listening for CV changes again");
+                    fireChangesMissed();
+                }
+                connectedBefore = true;
+                backoff = MIN_BACKOFF_MILLIS;
+
+                listen(connection, ownBackend);
+            } catch (SQLException e) {
+                if (closed) {
+                    return;
+                }
+                System.err.println("CV change listener disconnected, retrying in "
+                        + backoff / 1000 + " s: " + e.getMessage());
+            }
+
+            try {
+                Thread.sleep(backoff + ThreadLocalRandom.current().nextLong(backoff / 2 + 1));
+            } catch (InterruptedException e) {
+                return;
+            }
+            backoff = Math.min(MAX_BACKOFF_MILLIS, backoff * 2);
+        }
+    }
+
+    private void listen(Connection connection, IntPredicate ownBackend) throws SQLException {
+        PGConnection pgConnection = connection.unwrap(PGConnection.class);
+        long lastHeard = System.currentTimeMillis();
+
+        while (!closed) {
+            PGNotification[] notifications = pgConnection.getNotifications(POLL_MILLIS);
+            long now = System.currentTimeMillis();
+
+            if (notifications == null || notifications.length == 0) {
+                if (now - lastHeard >= VALIDATE_AFTER_MILLIS) {
+                    if (!connection.isValid(2)) {
+                        throw new SQLException("Notification connection is no longer valid", "08006");
+                    }
+                    lastHeard = now;
+                }
+                continue;
+            }
+            lastHeard = now;
+
+            Set<Integer> cvIds = new LinkedHashSet<>();
+            Set<Integer> userIds = new LinkedHashSet<>();
+            for (PGNotification notification : notifications) {
+                if (!CHANNEL.equals(notification.getName()) || ownBackend.test(notification.getPID())) {
+                    continue;
+                }
+                parse(notification.getParameter(), cvIds, userIds);
+            }
+            if (!cvIds.isEmpty()) {
+                fireCVsChanged(Collections.unmodifiableSet(cvIds), Collections.unmodifiableSet(userIds));
+            }
+        }
+    }
+
+    // Payload: "<cv id>,<user id>" with an empty user id when unknown
+    private static void parse(String payload, Set<Integer> cvIds, Set<Integer> userIds) {
+        int comma = payload.indexOf(',');
+        try {
+            cvIds.add(Integer.parseInt(comma < 0 ? payload : payload.substring(0, comma)));
+            if (comma >= 0 && comma < payload.length() - 1) {
+                userIds.add(Integer.parseInt(payload.substring(comma + 1)));
+            }
+        } catch (NumberFormatException e) {
+            System.err.println("Ignoring malformed CV change notification: " + payload);
+        }
+    }
+
+    private void fireCVsChanged(Set<Integer> cvIds, Set<Integer> userIds) {
+        for (Listener listener : listeners) {
+            try {
+                listener.cvsChanged(cvIds, userIds);
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private void fireChangesMissed() {
+        for (Listener listener : listeners) {
+            try {
+                listener.changesMissed();
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package components.CVBuilder.util;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+
+import org.postgresql.PGConnection;
+
+import components.CVBuilder.model.CV;
+
+/**
+ * Streams every CV out of PostgreSQL in constant memory, for backups and
+ * analytics.
+ *
+ * {@link #exportJsonLines} reads {@code cvs} and the four section tables
+ * through server-side cursors, all ordered by CV id, and merges them like a
+ * merge join so that only one CV aggregate is in memory at a time.
+ * {@link #exportCsv} dumps a single table with {@code COPY ... TO STDOUT}.
+ */
+public class CVExporter {
+    private static final int DEFAULT_FETCH_SIZE = 1_000;
+    private static final int WRITE_BUFFER_CHARS = 64 * 1024;
+    private static final List<String> TABLES =
+            Arrays.asList("cvs", "education", "experience", "skills", "languages");
+
+    private final DatabaseHandler database;
+    private final int fetchSize;
+
+    public CVExporter(DatabaseHandler database) {
+        this(database, DEFAULT_FETCH_SIZE);
+    }
+
+    public CVExporter(DatabaseHandler database, int fetchSize) {
+        this.database = database;
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Writes one JSON object per line in the {@link CVJson} format, ordered by
+     * CV id, and returns the number of CVs written. The stream is flushed but
+     * not closed.
+     */
+    public long exportJsonLines(OutputStream out) throws SQLException, IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), WRITE_BUFFER_CHARS);
+        long count = 0;
+
+        try (Connection connection = database.getConnection()) {
+            // The driver only uses cursors (and honours the fetch size) inside a transaction
+            connection.setAutoCommit(false);
+            connection.setReadOnly(true);
+            // One snapshot for all five cursors, so sections match their CVs
+            int isolation = connection.getTransactionIsolation();
+            connection.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+            try (PreparedStatement cvStatement = cursor(connection, "SELECT * FROM cvs ORDER BY id");
+                 ResultSet cvRows = cvStatement.executeQuery();
+                 SectionCursor education = new SectionCursor(connection, "education");
+                 SectionCursor experience = new SectionCursor(connection, "experience");
+                 SectionCursor skills = new SectionCursor(connection, "skills");
+                 SectionCursor languages = new SectionCursor(connection, "languages")) {
+
+                while (cvRows.next()) {
+                    CV cv = DatabaseHandler.mapCV(cvRows);
+                    int cvId = cv.getId();
+
+                    while (education.advanceTo(cvId)) {
+                        cv.addEducation(DatabaseHandler.mapEducation(education.rows));
+                    }
+                    while (experience.advanceTo(cvId)) {
+                        cv.addExperience(DatabaseHandler.mapExperience(experience.rows));
+                    }
+                    while (skills.advanceTo(cvId)) {
+                        cv.addSkill(DatabaseHandler.mapSkill(skills.rows));
+                    }
+                    while (languages.advanceTo(cvId)) {
+                        cv.addLanguage(DatabaseHandler.mapLanguage(languages.rows));
+                    }
+
+                    CVJson.write(cv, writer);
+                    writer.write('\n');
+                    count++;
+                }
+            } finally {
+                connection.rollback();
+                connection.setTransactionIsolation(isolation);
+                connection.setReadOnly(false);
+            }
+        }
+
+        writer.flush();
+        return count;
+    }
+
+    /**
+     * Writes one of the CV tables as CSV with a header row, ordered by id,
+     * and returns the number of rows. The stream is not closed.
+     */
+    public long exportCsv(String table, OutputStream out) throws SQLException, IOException {
+        if (!TABLES.contains(table)) {
+            throw new IllegalArgumentException("Not an exportable table: " + table);
+        }
+
+        try (Connection connection = database.getConnection()) {
+            return connection.unwrap(PGConnection.class).getCopyAPI()
+                    .copyOut("COPY (SELECT * FROM " + table + " ORDER BY id) TO STDOUT WITH (FORMAT csv, HEADER)", out);
+        }
+    }
+
+    private PreparedStatement cursor(Connection connection, String query) throws SQLException {
+        PreparedStatement statement = connection.prepareStatement(query,
+                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        statement.setFetchSize(fetchSize);
+        return statement;
+    }
+
+    /**
+     * Forward-only cursor over one section table ordered by {@code cv_id, id}.
+     * Rows of CVs that are not exported (orphans) are skipped.
+     */
+    private final class SectionCursor implements AutoCloseable {
+        private final PreparedStatement statement;
+        private final ResultSet rows;
+        private boolean hasRow;
+        private boolean consumed = true;
+
+        SectionCursor(Connection connection, String table) throws SQLException {
+            // Rows without a CV cannot be merged; they would sort last anyway
+            this.statement = cursor(connection,
+                    "SELECT * FROM " + table + " WHERE cv_id IS NOT NULL ORDER BY cv_id, id");
+            this.rows = statement.executeQuery();
+        }
+
+        /**
+         * Positions the cursor on the next row of the given CV and returns
+         * true, or returns false once the rows of that CV are exhausted.
+         */
+        boolean advanceTo(int cvId) throws SQLException {
+            while (true) {
+                if (consumed) {
+                    hasRow = rows.next();
+                    consumed = false;
+                }
+                if (!hasRow) {
+                    return false;
+                }
+                int rowCvId = rows.getInt("cv_id");
+                if (rowCvId > cvId) {
+                    return false; // Belongs to a later CV; keep it for then
+                }
+                consumed = true;
+                if (rowCvId == cvId) {
+                    return true;
+                }
+            }
+        }
+
+        @Override
+        public void close() throws SQLException {
+            try {
+                rows.close();
+            } finally {
+                statement.close();
+            }
+        }
+    }
+}
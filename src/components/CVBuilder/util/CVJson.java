@@ -0,0 +1,328 @@
+package components.CVBuilder.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+
+import components.CVBuilder.model.CV;
+import components.CVBuilder.model.Education;
+import components.CVBuilder.model.Experience;
+import components.CVBuilder.model.Language;
+import components.CVBuilder.model.Skill;
+
+/**
+ * JSON encoding of a whole CV aggregate. Dates use ISO-8601 ({@code yyyy-MM-dd})
+ * and unknown members are ignored when reading.
+ */
+public class CVJson {
+    // Section flags for writing part of a CV
+    public static final int EDUCATION = 1;
+    public static final int EXPERIENCE = 1 << 1;
+    public static final int SKILLS = 1 << 2;
+    public static final int LANGUAGES = 1 << 3;
+    public static final int ALL_SECTIONS = EDUCATION | EXPERIENCE | SKILLS | LANGUAGES;
+
+    public static String toJson(CV cv) {
+        return toJson(cv, ALL_SECTIONS);
+    }
+
+    /**
+     * Encodes the header and only the given sections; the members of the
+     * other sections are left out entirely.
+     */
+    public static String toJson(CV cv, int sections) {
+        StringBuilder json = new StringBuilder(512);
+        try {
+            write(cv, json, sections);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // StringBuilder never throws
+        }
+        return json.toString();
+    }
+
+    public static void write(CV cv, Appendable out) throws IOException {
+        write(cv, out, ALL_SECTIONS);
+    }
+
+    public static void write(CV cv, Appendable out, int sections) throws IOException {
+        out.append('{');
+        field(out, "id", cv.getId(), true);
+        field(out, "userId", cv.getUserId(), false);
+        field(out, "title", cv.getTitle());
+        field(out, "fullName", cv.getFullName());
+        field(out, "email", cv.getEmail());
+        field(out, "phone", cv.getPhone());
+        field(out, "address", cv.getAddress());
+        field(out, "summary", cv.getSummary());
+
+        if ((sections & EDUCATION) != 0) {
+            out.append(",\"education\":[");
+            boolean first = true;
+            for (Education edu : cv.getEducation()) {
+                if (!first) {
+                    out.append(',');
+                }
+                first = false;
+                out.append('{');
+                field(out, "id", edu.getId(), true);
+                field(out, "institution", edu.getInstitution());
+                field(out, "degree", edu.getDegree());
+                field(out, "fieldOfStudy", edu.getFieldOfStudy());
+                field(out, "startDate", edu.getStartDate());
+                field(out, "endDate", edu.getEndDate());
+                field(out, "description", edu.getDescription());
+                out.append('}');
+            }
+            out.append(']');
+        }
+
+        if ((sections & EXPERIENCE) != 0) {
+            out.append(",\"experience\":[");
+            boolean first = true;
+            for (Experience exp : cv.getExperience()) {
+                if (!first) {
+                    out.append(',');
+                }
+                first = false;
+                out.append('{');
+                field(out, "id", exp.getId(), true);
+                field(out, "company", exp.getCompany());
+                field(out, "position", exp.getPosition());
+                field(out, "location", exp.getLocation());
+                field(out, "startDate", exp.getStartDate());
+                field(out, "endDate", exp.getEndDate());
+                field(out, "description", exp.getDescription());
+                out.append('}');
+            }
+            out.append(']');
+        }
+
+        if ((sections & SKILLS) != 0) {
+            out.append(",\"skills\":[");
+            boolean first = true;
+            for (Skill skill : cv.getSkills()) {
+                if (!first) {
+                    out.append(',');
+                }
+                first = false;
+                out.append('{');
+                field(out, "id", skill.getId(), true);
+                field(out, "name", skill.getName());
+                field(out, "level", skill.getLevel(), false);
+                out.append('}');
+            }
+            out.append(']');
+        }
+
+        if ((sections & LANGUAGES) != 0) {
+            out.append(",\"languages\":[");
+            boolean first = true;
+            for (Language language : cv.getLanguages()) {
+                if (!first) {
+                    out.append(',');
+                }
+                first = false;
+                out.append('{');
+                field(out, "id", language.getId(), true);
+                field(out, "name", language.getName());
+                field(out, "proficiency", language.getProficiency());
+                out.append('}');
+            }
+            out.append(']');
+        }
+        out.append('}');
+    }
+
+    public static CV fromJson(String json) throws IOException {
+        return read(new JsonReader(new StringReader(json)));
+    }
+
+    public static CV read(Reader reader) throws IOException {
+        return read(new JsonReader(reader));
+    }
+
+    /**
+     * Reads one CV object from the parser's current position.
+     */
+    public static CV read(JsonReader json) throws IOException {
+        CV cv = new CV();
+        json.beginObject();
+        while (json.hasNext()) {
+            switch (json.nextName()) {
+                case "id": cv.setId(json.nextInt()); break;
+                case "userId": cv.setUserId(json.nextInt()); break;
+                case "title": cv.setTitle(json.nextString()); break;
+                case "fullName": cv.setFullName(json.nextString()); break;
+                case "email": cv.setEmail(json.nextString()); break;
+                case "phone": cv.setPhone(json.nextString()); break;
+                case "address": cv.setAddress(json.nextString()); break;
+                case "summary": cv.setSummary(json.nextString()); break;
+                case "education":
+                    if (beginArray(json)) {
+                        while (json.hasNext()) {
+                            cv.addEducation(readEducation(json, cv.getId()));
+                        }
+                        json.endArray();
+                    }
+                    break;
+                case "experience":
+                    if (beginArray(json)) {
+                        while (json.hasNext()) {
+                            cv.addExperience(readExperience(json, cv.getId()));
+                        }
+                        json.endArray();
+                    }
+                    break;
+                case "skills":
+                    if (beginArray(json)) {
+                        while (json.hasNext()) {
+                            cv.addSkill(readSkill(json, cv.getId()));
+                        }
+                        json.endArray();
+                    }
+                    break;
+                case "languages":
+                    if (beginArray(json)) {
+                        while (json.hasNext()) {
+                            cv.addLanguage(readLanguage(json, cv.getId()));
+                        }
+                        json.endArray();
+                    }
+                    break;
+                default:
+                    json.skipValue();
+            }
+        }
+        json.endObject();
+        return cv;
+    }
+
+    private static Education readEducation(JsonReader json, int cvId) throws IOException {
+        Education education = new Education();
+        education.setCvId(cvId);
+        json.beginObject();
+        while (json.hasNext()) {
+            switch (json.nextName()) {
+                case "id": education.setId(json.nextInt()); break;
+                case "institution": education.setInstitution(json.nextString()); break;
+                case "degree": education.setDegree(json.nextString()); break;
+                case "fieldOfStudy": education.setFieldOfStudy(json.nextString()); break;
+                case "startDate": education.setStartDate(parseDate(json.nextString())); break;
+                case "endDate": education.setEndDate(parseDate(json.nextString())); break;
+                case "description": education.setDescription(json.nextString()); break;
+                default: json.skipValue();
+            }
+        }
+        json.endObject();
+        return education;
+    }
+
+    private static Experience readExperience(JsonReader json, int cvId) throws IOException {
+        Experience experience = new Experience();
+        experience.setCvId(cvId);
+        json.beginObject();
+        while (json.hasNext()) {
+            switch (json.nextName()) {
+                case "id": experience.setId(json.nextInt()); break;
+                case "company": experience.setCompany(json.nextString()); break;
+                case "position": experience.setPosition(json.nextString()); break;
+                case "location": experience.setLocation(json.nextString()); break;
+                case "startDate": experience.setStartDate(parseDate(json.nextString())); break;
+                case "endDate": experience.setEndDate(parseDate(json.nextString())); break;
+                case "description": experience.setDescription(json.nextString()); break;
+                default: json.skipValue();
+            }
+        }
+        json.endObject();
+        return experience;
+    }
+
+    private static Skill readSkill(JsonReader json, int cvId) throws IOException {
+        Skill skill = new Skill();
+        skill.setCvId(cvId);
+        json.beginObject();
+        while (json.hasNext()) {
+            switch (json.nextName()) {
+                case "id": skill.setId(json.nextInt()); break;
+                case "name": skill.setName(json.nextString()); break;
+                case "level": skill.setLevel(json.nextInt()); break;
+                default: json.skipValue();
+            }
+        }
+        json.endObject();
+        return skill;
+    }
+
+    private static Language readLanguage(JsonReader json, int cvId) throws IOException {
+        Language language = new Language();
+        language.setCvId(cvId);
+        json.beginObject();
+        while (json.hasNext()) {
+            switch (json.nextName()) {
+                case "id": language.setId(json.nextInt()); break;
+                case "name": language.setName(json.nextString()); break;
+                case "proficiency": language.setProficiency(json.nextString()); break;
+                default: json.skipValue();
+            }
+        }
+        json.endObject();
+        return language;
+    }
+
+    // Treats a JSON null in place of an array as an empty section
+    private static boolean beginArray(JsonReader json) throws IOException {
+        if (json.peek() == JsonReader.Token.NULL) {
+            json.nextString();
+            return false;
+        }
+        json.beginArray();
+        return true;
+    }
+
+    private static LocalDate parseDate(String value) {
+        return value != null ? LocalDate.parse(value) : null;
+    }
+
+    private static void field(Appendable out, String name, int value, boolean first) throws IOException {
+        if (!first) {
+            out.append(',');
+        }
+        out.append('"').append(name).append("\":").append(Integer.toString(value));
+    }
+
+    private static void field(Appendable out, String name, LocalDate value) throws IOException {
+        field(out, name, value != null ? value.toString() : null);
+    }
+
+    private static void field(Appendable out, String name, String value) throws IOException {
+        out.append(",\"").append(name).append("\":");
+        if (value == null) {
+            out.append("null");
+        } else {
+            quote(out, value);
+        }
+    }
+
+    static void quote(Appendable out, String value) throws IOException {
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"': out.append("\\\""); break;
+                case '\\': out.append("\\\\"); break;
+                case '\n': out.append("\\n"); break;
+                case '\r': out.append("\\r"); break;
+                case '\t': out.append("\\t"); break;
+                default:
+                    if (c < 0x20 || c == 0x2028 || c == 0x2029) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+            }
+        }
+        out.append('"');
+    }
+}
@@ -0,0 +1,69 @@
+package components.CVBuilder.util;
+
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+
+import components.CVBuilder.model.CV;
+import components.CVBuilder.model.CVSummary;
+import components.CVBuilder.model.User;
+
+/**
+ * Storage operations for users and CVs. Implementations are selected with
+ * {@code db.backend} in {@code database.properties}; see {@link Repositories}.
+ *
+ * Failures are reported as {@link SQLException}s carrying PostgreSQL-compatible
+ * SQLStates (e.g. {@code 23505} for a duplicate username), whatever the backend,
+ * so callers can handle them in one place. CVs passed in are updated with their
+ * generated ids and marked clean on success; CVs handed out are copies the
+ * caller may modify freely.
+ */
+public interface CVRepository {
+
+    // User operations
+    boolean registerUser(User user) throws SQLException;
+
+    /**
+     * Returns the user with a blanked password, or null if the credentials do not match.
+     */
+    User loginUser(String username, String password) throws SQLException;
+
+    // CV operations
+    /**
+     * Stores a new CV with all its sections and returns its id, or -1 on failure.
+     */
+    int createCV(CV cv) throws SQLException;
+
+    /**
+     * Saves the CV's changes. Returns false if the CV no longer exists.
+     */
+    boolean updateCV(CV cv) throws SQLException;
+
+    /**
+     * Saves several CVs at once and returns how many still existed and were updated.
+     */
+    int updateCVs(Collection<CV> cvs) throws SQLException;
+
+    /**
+     * Deletes the CV with its sections; returns false if it did not exist.
+     */
+    boolean deleteCV(int cvId) throws SQLException;
+
+    /**
+     * Deletes the CVs together with their sections in one operation and
+     * returns how many existed.
+     */
+    int deleteCVs(Collection<Integer> cvIds) throws SQLException;
+
+    List<CV> getCVsByUserId(int userId);
+
+    /**
+     * Returns the dashboard projection of a user's CVs, most recently updated first.
+     */
+    List<CVSummary> getCVSummariesByUserId(int userId);
+
+    /**
+     * Returns the full CV aggregate, or null if it does not exist.
+     */
+    CV getCVById(int cvId);
+}
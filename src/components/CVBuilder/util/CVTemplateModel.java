@@ -0,0 +1,219 @@
+package components.CVBuilder.util;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+import components.CVBuilder.model.CV;
+import components.CVBuilder.model.Education;
+import components.CVBuilder.model.Experience;
+import components.CVBuilder.model.Language;
+import components.CVBuilder.model.Skill;
+import freemarker.template.SimpleScalar;
+import freemarker.template.TemplateHashModel;
+import freemarker.template.TemplateModel;
+import freemarker.template.TemplateSequenceModel;
+
+/**
+ * Data model of {@code cv_template.ftl}: immutable views of a CV whose text is
+ * already LaTeX-escaped and whose dates are already formatted.
+ *
+ * The views implement {@link TemplateHashModel} themselves, so FreeMarker
+ * reads their fields through a switch instead of wrapping them with
+ * reflection, and nothing is looked up in per-item maps. Absent optional
+ * fields return null, so {@code ??} tests keep working.
+ */
+final class CVTemplateModel {
+    // Built once and shared (formatters are immutable); English, as the PDF has always been
+    private static final DateTimeFormatter SHORT_MONTH_YEAR_EN = DateTimeFormatter.ofPattern("MMM yyyy", Locale.ENGLISH);
+    private static final DateTimeFormatter MONTH_YEAR_EN = DateTimeFormatter.ofPattern("MMMM yyyy", Locale.ENGLISH);
+    private static final String PRESENT = "Present";
+
+    private CVTemplateModel() {
+    }
+
+    /**
+     * Returns the template's root, which holds the CV as {@code cv}.
+     */
+    static Map<String, Object> of(CV cv) {
+        return Collections.singletonMap("cv", CVView.of(cv));
+    }
+
+    record CVView(String title, String fullName, String email, String phone, String address, String summary,
+                  List<EducationView> education, List<ExperienceView> experience,
+                  List<SkillView> skills, List<LanguageView> languages) implements TemplateHashModel {
+
+        static CVView of(CV cv) {
+            return new CVView(LaTeXEscaper.escape(cv.getTitle()), LaTeXEscaper.escape(cv.getFullName()),
+                    LaTeXEscaper.escape(cv.getEmail()), LaTeXEscaper.escape(cv.getPhone()),
+                    cv.getAddress() != null ? LaTeXEscaper.escape(cv.getAddress()) : null,
+                    cv.getSummary() != null ? LaTeXEscaper.escape(cv.getSummary()) : null,
+                    views(cv.getEducation(), EducationView::of), views(cv.getExperience(), ExperienceView::of),
+                    views(cv.getSkills(), SkillView::of), views(cv.getLanguages(), LanguageView::of));
+        }
+
+        @Override
+        public TemplateModel get(String key) {
+            switch (key) {
+                case "title": return scalar(title);
+                case "fullName": return scalar(fullName);
+                case "email": return scalar(email);
+                case "phone": return scalar(phone);
+                case "address": return scalar(address);
+                case "summary": return scalar(summary);
+                case "education": return new Sequence(education);
+                case "experience": return new Sequence(experience);
+                case "skills": return new Sequence(skills);
+                case "languages": return new Sequence(languages);
+                default: return null;
+            }
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return false;
+        }
+    }
+
+    record EducationView(String institution, String degree, String fieldOfStudy, String startDate, String endDate)
+            implements TemplateHashModel {
+
+        static EducationView of(Education edu) {
+            return new EducationView(LaTeXEscaper.escape(edu.getInstitution()), LaTeXEscaper.escape(edu.getDegree()),
+                    LaTeXEscaper.escape(edu.getFieldOfStudy()),
+                    format(edu.getStartDate(), SHORT_MONTH_YEAR_EN), format(edu.getEndDate(), SHORT_MONTH_YEAR_EN));
+        }
+
+        @Override
+        public TemplateModel get(String key) {
+            switch (key) {
+                case "institution": return scalar(institution);
+                case "degree": return scalar(degree);
+                case "fieldOfStudy": return scalar(fieldOfStudy);
+                case "startDate": return scalar(startDate);
+                case "endDate": return scalar(endDate);
+                default: return null;
+            }
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return false;
+        }
+    }
+
+    record ExperienceView(String company, String position, String location, String startDate, String endDate,
+                          String description) implements TemplateHashModel {
+
+        static ExperienceView of(Experience exp) {
+            return new ExperienceView(LaTeXEscaper.escape(exp.getCompany()), LaTeXEscaper.escape(exp.getPosition()),
+                    LaTeXEscaper.escape(exp.getLocation()),
+                    format(exp.getStartDate(), MONTH_YEAR_EN), format(exp.getEndDate(), MONTH_YEAR_EN),
+                    LaTeXEscaper.escape(exp.getDescription()));
+        }
+
+        @Override
+        public TemplateModel get(String key) {
+            switch (key) {
+                case "company": return scalar(company);
+                case "position": return scalar(position);
+                case "location": return scalar(location);
+                case "startDate": return scalar(startDate);
+                case "endDate": return scalar(endDate);
+                case "description": return scalar(description);
+                default: return null;
+            }
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return false;
+        }
+    }
+
+    record SkillView(String name, String level) implements TemplateHashModel {
+
+        static SkillView of(Skill skill) {
+            return new SkillView(LaTeXEscaper.escape(skill.getName()), String.valueOf(skill.getLevel()));
+        }
+
+        @Override
+        public TemplateModel get(String key) {
+            switch (key) {
+                case "name": return scalar(name);
+                case "level": return scalar(level);
+                default: return null;
+            }
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return false;
+        }
+    }
+
+    record LanguageView(String name, String proficiency) implements TemplateHashModel {
+
+        static LanguageView of(Language language) {
+            return new LanguageView(LaTeXEscaper.escape(language.getName()),
+                    LaTeXEscaper.escape(language.getProficiency()));
+        }
+
+        @Override
+        public TemplateModel get(String key) {
+            switch (key) {
+                case "name": return scalar(name);
+                case "proficiency": return scalar(proficiency);
+                default: return null;
+            }
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return false;
+        }
+    }
+
+    // Read-only list of views as a FreeMarker sequence, without copying
+    private static final class Sequence implements TemplateSequenceModel {
+        private final List<? extends TemplateModel> items;
+
+        Sequence(List<? extends TemplateModel> items) {
+            this.items = items;
+        }
+
+        @Override
+        public TemplateModel get(int index) {
+            return index >= 0 && index < items.size() ? items.get(index) : null;
+        }
+
+        @Override
+        public int size() {
+            return items.size();
+        }
+    }
+
+    private static <T, V> List<V> views(List<T> items, Function<T, V> view) {
+        if (items == null || items.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<V> views = new ArrayList<>(items.size());
+        for (T item : items) {
+            views.add(view.apply(item));
+        }
+        return Collections.unmodifiableList(views);
+    }
+
+    private static TemplateModel scalar(String value) {
+        return value != null ? new SimpleScalar(value) : null;
+    }
+
+    private static String format(LocalDate date, DateTimeFormatter formatter) {
+        return date != null ? date.format(formatter) : PRESENT;
+    }
+}
@@ -0,0 +1,198 @@
+package components.CVBuilder.util;
+
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Fails database calls fast while PostgreSQL is unreachable, instead of
+ * letting every call sit through its own connect timeout.
+ *
+ * After {@code db.breaker.failureThreshold} consecutive connection failures
+ * the breaker opens and calls are rejected with an {@link OpenException} for
+ * {@code db.breaker.openMillis}. The next call after that is let through as a
+ * trial (half-open): success closes the breaker, another connection failure
+ * opens it again. Any other outcome, including SQL errors such as constraint
+ * violations, proves the server is reachable.
+ */
+public class CircuitBreaker {
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    /**
+     * Told about every state change, on the thread that caused it.
+     * {@code retryAtMillis} is when an open breaker lets the next trial through.
+     */
+    public interface Listener {
+        void stateChanged(State state, long retryAtMillis);
+    }
+
+    /**
+     * Thrown instead of running a call while the breaker is open.
+     */
+    public static class OpenException extends SQLTransientConnectionException {
+        private static final long serialVersionUID = 1L;
+
+        private final long retryAtMillis;
+
+        OpenException(long retryAtMillis) {
+            super("Database unavailable; next attempt in "
+                    + Math.max(0, (retryAtMillis - System.currentTimeMillis() + 999) / 1000) + " s", "08001");
+            this.retryAtMillis = retryAtMillis;
+        }
+
+        public long getRetryAtMillis() {
+            return retryAtMillis;
+        }
+    }
+
+    private static CircuitBreaker instance;
+
+    private final int failureThreshold;
+    private final long openMillis;
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long retryAt;
+    private boolean trialInFlight;
+
+    public static synchronized CircuitBreaker getInstance() {
+        if (instance == null) {
+            instance = new CircuitBreaker(
+                    DatabaseConfig.getInt("db.breaker.failureThreshold", 3),
+                    DatabaseConfig.getInt("db.breaker.openMillis", 10_000));
+        }
+        return instance;
+    }
+
+    CircuitBreaker(int failureThreshold, long openMillis) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openMillis = openMillis;
+    }
+
+    /**
+     * True for failures that mean the server cannot be reached: SQLState class
+     * 08 (connection exception) and the 57P0x codes of a shutting down or
+     * starting up server.
+     */
+    public static boolean isConnectionFailure(SQLException e) {
+        String sqlState = e.getSQLState();
+        return sqlState != null && (sqlState.startsWith("08") || sqlState.startsWith("57P0"));
+    }
+
+    /**
+     * Runs the work unless the breaker is open, and records its outcome.
+     */
+    public <T> T call(QueryMetrics.Work<T> work) throws SQLException {
+        boolean trial = acquire();
+        boolean settled = false;
+        try {
+            T result = work.run();
+            settled = true;
+            onSuccess();
+            return result;
+        } catch (SQLException e) {
+            settled = true;
+            if (isConnectionFailure(e)) {
+                onFailure();
+            } else {
+                onSuccess();
+            }
+            throw e;
+        } finally {
+            if (trial && !settled) {
+                releaseTrial();
+            }
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public synchronized long getRetryAtMillis() {
+        return retryAt;
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    // Returns true if this call is the half-open trial
+    private boolean acquire() throws OpenException {
+        boolean halfOpened = false;
+        synchronized (this) {
+            switch (state) {
+                case CLOSED:
+                    return false;
+                case OPEN:
+                    if (System.currentTimeMillis() < retryAt) {
+                        throw new OpenException(retryAt);
+                    }
+                    state = State.HALF_OPEN;
+                    halfOpened = true;
+                    break;
+                case HALF_OPEN:
+                    if (trialInFlight) {
+                        throw new OpenException(retryAt);
+                    }
+                    break;
+            }
+            trialInFlight = true;
+        }
+        if (halfOpened) {
+            fireStateChanged(State.HALF_OPEN, 0);
+        }
+        return true;
+    }
+
+    private void onSuccess() {
+        synchronized (this) {
+            consecutiveFailures = 0;
+            trialInFlight = false;
+            if (state == State.CLOSED) {
+                return;
+            }
+            state = State.CLOSED;
+            retryAt = 0;
+        }
+        fireStateChanged(State.CLOSED, 0);
+    }
+
+    private void onFailure() {
+        long openUntil;
+        synchronized (this) {
+            trialInFlight = false;
+            consecutiveFailures++;
+            if (state == State.OPEN
+                    || (state == State.CLOSED && consecutiveFailures < failureThreshold)) {
+                return;
+            }
+            state = State.OPEN;
+            retryAt = System.currentTimeMillis() + openMillis;
+            openUntil = retryAt;
+        }
+        System.err.println("Database unreachable; failing fast for " + openMillis + " ms");
+        fireStateChanged(State.OPEN, openUntil);
+    }
+
+    // The trial ended without telling anything about the server; let the next call try
+    private synchronized void releaseTrial() {
+        trialInFlight = false;
+    }
+
+    private void fireStateChanged(State newState, long retryAtMillis) {
+        for (Listener listener : listeners) {
+            try {
+                listener.stateChanged(newState, retryAtMillis);
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+}
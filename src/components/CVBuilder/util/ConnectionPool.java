@@ -0,0 +1,430 @@
+package components.CVBuilder.util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.util.Iterator;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.postgresql.PGConnection;
+
+/**
+ * Small bounded JDBC connection pool used by {@link DatabaseHandler}.
+ *
+ * Callers borrow a connection with {@link #borrow()} and give it back by
+ * closing it (try-with-resources). Idle connections are validated on borrow,
+ * evicted after {@code idleTimeoutMillis} and topped back up to the minimum
+ * size by a background thread.
+ */
+public class ConnectionPool implements AutoCloseable {
+    // Connections used this recently are assumed alive and skip validation
+    private static final long VALIDATION_BYPASS_MILLIS = 500;
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final String url;
+    private final Properties connectionProperties;
+    private final int minSize;
+    private final int maxSize;
+    private final long idleTimeoutMillis;
+    private final long acquireTimeoutMillis;
+
+    private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+    private final Semaphore permits;
+    private final AtomicInteger total = new AtomicInteger();
+    private final AtomicInteger active = new AtomicInteger();
+    private final LongAdder borrowed = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final ScheduledExecutorService housekeeper;
+    // Server process ids of the open connections, to recognise our own notifications
+    private final Set<Integer> backendPids = ConcurrentHashMap.newKeySet();
+    private volatile StatementDecorator statementDecorator;
+    private volatile boolean closed;
+
+    /**
+     * Hook for wrapping the statements created on leased connections, e.g.
+     * to instrument them. {@code sql} is null for plain statements.
+     */
+    public interface StatementDecorator {
+        Statement decorate(Statement statement, Class<?> type, String sql);
+
+        /**
+         * Called after a commit or rollback on a leased connection.
+         */
+        default void onTransactionEnd(long elapsedNanos) {
+        }
+    }
+
+    public ConnectionPool(String url, Properties connectionProperties, int minSize, int maxSize,
+                          long idleTimeoutMillis, long acquireTimeoutMillis) throws SQLException {
+        if (minSize < 0 || maxSize < 1 || minSize > maxSize) {
+            throw new IllegalArgumentException("Invalid pool size: min=" + minSize + ", max=" + maxSize);
+        }
+        this.url = url;
+        this.connectionProperties = connectionProperties;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+        this.permits = new Semaphore(maxSize, true);
+
+        // Fail fast on bad credentials or an unreachable server
+        fillToMinimum();
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "db-pool-housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1000, Math.min(idleTimeoutMillis / 2, 30_000));
+        housekeeper.scheduleWithFixedDelay(this::evictIdle, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Borrows a connection, waiting at most {@code acquireTimeoutMillis} for one
+     * to become available. Closing the returned connection hands it back.
+     */
+    public Connection borrow() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed");
+        }
+
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                timeouts.increment();
+                throw new SQLTransientConnectionException(
+                        "Timed out after " + acquireTimeoutMillis + " ms waiting for a database connection");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a database connection", e);
+        }
+
+        try {
+            PooledConnection pooled = takeValidIdle();
+            if (pooled == null) {
+                pooled = new PooledConnection(openPhysical());
+            }
+            recordWait(System.nanoTime() - start);
+            active.incrementAndGet();
+            borrowed.increment();
+            return pooled.lease();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Closes every idle connection, e.g. after a connection failure: when the
+     * server restarts all of them are dead, and validating them one by one on
+     * borrow would cost a timeout each. Leased connections are checked when
+     * they come back.
+     */
+    public void discardIdle() {
+        PooledConnection pooled;
+        while ((pooled = idle.poll()) != null) {
+            pooled.closePhysical();
+        }
+    }
+
+    public void setStatementDecorator(StatementDecorator statementDecorator) {
+        this.statementDecorator = statementDecorator;
+    }
+
+    public PoolStats getStats() {
+        long count = borrowed.sum();
+        return new PoolStats(total.get(), active.get(), idle.size(), permits.getQueueLength(),
+                count, timeouts.sum(),
+                count == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(waitNanos.sum() / count) / 1000.0,
+                TimeUnit.NANOSECONDS.toMicros(maxWaitNanos.get()) / 1000.0);
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        housekeeper.shutdownNow();
+        PooledConnection pooled;
+        while ((pooled = idle.poll()) != null) {
+            pooled.closePhysical();
+        }
+    }
+
+    private PooledConnection takeValidIdle() {
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            if (pooled.isUsable()) {
+                return pooled;
+            }
+            pooled.closePhysical();
+        }
+        return null;
+    }
+
+    private Connection openPhysical() throws SQLException {
+        Connection physical = DriverManager.getConnection(url, connectionProperties);
+        total.incrementAndGet();
+        return physical;
+    }
+
+    /**
+     * True if the PostgreSQL backend with the given process id serves one of
+     * this pool's connections, e.g. to skip NOTIFY messages caused by our own
+     * writes.
+     */
+    public boolean ownsBackend(int pid) {
+        return backendPids.contains(pid);
+    }
+
+    private static int backendPid(Connection physical) {
+        try {
+            return physical.isWrapperFor(PGConnection.class) ? physical.unwrap(PGConnection.class).getBackendPID() : 0;
+        } catch (SQLException e) {
+            return 0;
+        }
+    }
+
+    private void fillToMinimum() throws SQLException {
+        while (!closed && total.get() < minSize) {
+            idle.offerFirst(new PooledConnection(openPhysical()));
+        }
+    }
+
+    private void evictIdle() {
+        long now = System.currentTimeMillis();
+        Iterator<PooledConnection> it = idle.descendingIterator();
+        while (it.hasNext() && total.get() > minSize) {
+            PooledConnection pooled = it.next();
+            if (now - pooled.lastUsed >= idleTimeoutMillis && idle.remove(pooled)) {
+                pooled.closePhysical();
+            }
+        }
+
+        try {
+            fillToMinimum();
+        } catch (SQLException e) {
+            System.err.println("Connection pool could not refill to minimum size: " + e.getMessage());
+        }
+    }
+
+    private void recordWait(long nanos) {
+        waitNanos.add(nanos);
+        maxWaitNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    private void release(PooledConnection pooled) {
+        active.decrementAndGet();
+        try {
+            if (closed || !pooled.reset()) {
+                pooled.closePhysical();
+            } else {
+                pooled.lastUsed = System.currentTimeMillis();
+                idle.offerFirst(pooled);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    private final class PooledConnection {
+        private final Connection physical;
+        private final int backendPid;
+        private volatile long lastUsed = System.currentTimeMillis();
+
+        PooledConnection(Connection physical) {
+            this.physical = physical;
+            this.backendPid = backendPid(physical);
+            backendPids.add(backendPid);
+        }
+
+        Connection lease() {
+            return (Connection) Proxy.newProxyInstance(
+                    ConnectionPool.class.getClassLoader(),
+                    new Class<?>[] { Connection.class },
+                    new LeaseHandler(this));
+        }
+
+        boolean isUsable() {
+            try {
+                if (physical.isClosed()) {
+                    return false;
+                }
+                if (System.currentTimeMillis() - lastUsed < VALIDATION_BYPASS_MILLIS) {
+                    return true;
+                }
+                return physical.isValid(VALIDATION_TIMEOUT_SECONDS);
+            } catch (SQLException e) {
+                return false;
+            }
+        }
+
+        // Puts the connection back into its default state; false means discard it
+        boolean reset() {
+            try {
+                if (physical.isClosed()) {
+                    return false;
+                }
+                if (!physical.getAutoCommit()) {
+                    physical.rollback();
+                    physical.setAutoCommit(true);
+                }
+                physical.clearWarnings();
+                return true;
+            } catch (SQLException e) {
+                return false;
+            }
+        }
+
+        void closePhysical() {
+            total.decrementAndGet();
+            backendPids.remove(backendPid);
+            try {
+                physical.close();
+            } catch (SQLException e) {
+                // Already broken, nothing else to do
+            }
+        }
+    }
+
+    private final class LeaseHandler implements InvocationHandler {
+        private final PooledConnection pooled;
+        private boolean returned;
+
+        LeaseHandler(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!returned) {
+                        returned = true;
+                        release(pooled);
+                    }
+                    return null;
+                case "isClosed":
+                    return returned || pooled.physical.isClosed();
+                case "unwrap":
+                    if (((Class<?>) args[0]).isInstance(proxy)) {
+                        return proxy;
+                    }
+                    break;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled[" + pooled.physical + "]";
+                default:
+                    break;
+            }
+
+            if (returned) {
+                throw new SQLException("Connection has already been returned to the pool");
+            }
+            StatementDecorator decorator = statementDecorator;
+            long start = System.nanoTime();
+            Object result;
+            try {
+                result = method.invoke(pooled.physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+
+            if (decorator != null) {
+                if (result instanceof Statement) {
+                    String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : null;
+                    return decorator.decorate((Statement) result, method.getReturnType(), sql);
+                }
+                if (method.getName().equals("commit") || method.getName().equals("rollback")) {
+                    decorator.onTransactionEnd(System.nanoTime() - start);
+                }
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Point-in-time snapshot of pool usage.
+     */
+    public static final class PoolStats {
+        private final int total;
+        private final int active;
+        private final int idle;
+        private final int waiting;
+        private final long borrowCount;
+        private final long timeoutCount;
+        private final double averageWaitMillis;
+        private final double maxWaitMillis;
+
+        PoolStats(int total, int active, int idle, int waiting, long borrowCount, long timeoutCount,
+                  double averageWaitMillis, double maxWaitMillis) {
+            this.total = total;
+            this.active = active;
+            this.idle = idle;
+            this.waiting = waiting;
+            this.borrowCount = borrowCount;
+            this.timeoutCount = timeoutCount;
+            this.averageWaitMillis = averageWaitMillis;
+            this.maxWaitMillis = maxWaitMillis;
+        }
+
+        public int getTotal() {
+            return total;
+        }
+
+        public int getActive() {
+            return active;
+        }
+
+        public int getIdle() {
+            return idle;
+        }
+
+        public int getWaiting() {
+            return waiting;
+        }
+
+        public long getBorrowCount() {
+            return borrowCount;
+        }
+
+        public long getTimeoutCount() {
+            return timeoutCount;
+        }
+
+        public double getAverageWaitMillis() {
+            return averageWaitMillis;
+        }
+
+        public double getMaxWaitMillis() {
+            return maxWaitMillis;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("total=%d, active=%d, idle=%d, waiting=%d, borrows=%d, timeouts=%d, "
+                    + "avgWait=%.2fms, maxWait=%.2fms", total, active, idle, waiting, borrowCount,
+                    timeoutCount, averageWaitMillis, maxWaitMillis);
+        }
+    }
+}
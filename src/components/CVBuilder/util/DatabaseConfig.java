@@ -0,0 +1,118 @@
+package components.CVBuilder.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+/**
+ * Settings from {@code database.properties} on the classpath. The connection
+ * details can be overridden together through the {@code DB_URL},
+ * {@code DB_USER} and {@code DB_PASSWORD} environment variables, and the
+ * read replica's URL through {@code DB_REPLICA_URL}.
+ */
+public class DatabaseConfig {
+    public static final String BACKEND_POSTGRES = "postgres";
+    public static final String BACKEND_LOCAL = "local";
+
+    private static final Properties CONFIG = new Properties();
+
+    private static final String DB_URL;
+    private static final String DB_USER;
+    private static final String DB_PASSWORD;
+
+    static {
+        try (InputStream input = DatabaseConfig.class.getClassLoader()
+                .getResourceAsStream("database.properties")) {
+            if (input != null) {
+                CONFIG.load(input);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("❌ Failed to load database.properties: " + e.getMessage(), e);
+        }
+
+        String url = System.getenv("DB_URL");
+        String user = System.getenv("DB_USER");
+        String password = System.getenv("DB_PASSWORD");
+
+        if (url == null || user == null || password == null) {
+            url = CONFIG.getProperty("db.url");
+            user = CONFIG.getProperty("db.user");
+            password = CONFIG.getProperty("db.password");
+        }
+
+        DB_URL = url;
+        DB_USER = user;
+        DB_PASSWORD = password;
+    }
+
+    private DatabaseConfig() {
+    }
+
+    public static boolean isLoaded() {
+        return !CONFIG.isEmpty();
+    }
+
+    public static String getUrl() {
+        return DB_URL;
+    }
+
+    public static String getUser() {
+        return DB_USER;
+    }
+
+    public static String getPassword() {
+        return DB_PASSWORD;
+    }
+
+    /**
+     * JDBC URL of the read replica ({@code db.replica.url}), or null to read
+     * from the primary only.
+     */
+    public static String getReplicaUrl() {
+        String url = System.getenv("DB_REPLICA_URL");
+        if (url == null) {
+            url = CONFIG.getProperty("db.replica.url");
+        }
+        return url == null || url.trim().isEmpty() ? null : url.trim();
+    }
+
+    public static String getReplicaUser() {
+        return CONFIG.getProperty("db.replica.user", DB_USER);
+    }
+
+    public static String getReplicaPassword() {
+        return CONFIG.getProperty("db.replica.password", DB_PASSWORD);
+    }
+
+    /**
+     * Storage backend from {@code db.backend}: {@value #BACKEND_POSTGRES} (default)
+     * or {@value #BACKEND_LOCAL}.
+     */
+    public static String getBackend() {
+        return get("db.backend", BACKEND_POSTGRES).trim().toLowerCase();
+    }
+
+    public static String get(String key, String defaultValue) {
+        return CONFIG.getProperty(key, defaultValue);
+    }
+
+    public static int getInt(String key, int defaultValue) {
+        String value = CONFIG.getProperty(key);
+        if (value == null || value.trim().isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("❌ Invalid value for " + key + ": " + value, e);
+        }
+    }
+
+    public static boolean getBoolean(String key, boolean defaultValue) {
+        String value = CONFIG.getProperty(key);
+        if (value == null || value.trim().isEmpty()) {
+            return defaultValue;
+        }
+        return Boolean.parseBoolean(value.trim());
+    }
+}
@@ -2,81 +2,309 @@
 package components.CVBuilder.util;
 
 import java.io.IOException;
-import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.sql.Array;
 import java.sql.Connection;
 import java.sql.Date;
-import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiPredicate;
 
 import components.CVBuilder.model.CV;
+import components.CVBuilder.model.CVSummary;
 import components.CVBuilder.model.Education;
 import components.CVBuilder.model.Experience;
 import components.CVBuilder.model.Language;
+import components.CVBuilder.model.SectionChanges;
 import components.CVBuilder.model.Skill;
+import components.CVBuilder.model.Tracked;
 import components.CVBuilder.model.User;
 
-public class DatabaseHandler {
+/**
+ * PostgreSQL implementation of {@link CVRepository}.
+ */
+public class DatabaseHandler implements CVRepository {
     private static DatabaseHandler instance;
-    private Connection connection;
-
-    // PostgreSQL connection details
-    private static final String DB_URL;
-    private static final String DB_USER;
-    private static final String DB_PASSWORD;
-
-    static {
-        String url = System.getenv("DB_URL");
-        String user = System.getenv("DB_USER");
-        String password = System.getenv("DB_PASSWORD");
-
-        if (url == null || user == null || password == null) {
-            Properties props = new Properties();
-            try (InputStream input = DatabaseHandler.class.getClassLoader()
-                    .getResourceAsStream("database.properties")) {
-                if (input == null) {
-                    throw new RuntimeException("❌ database.properties not found in resources!");
-                }
-                props.load(input);
-            } catch (IOException e) {
-                throw new RuntimeException("❌ Failed to load database.properties: " + e.getMessage(), e);
-            }
-
-            url = props.getProperty("db.url");
-            user = props.getProperty("db.user");
-            password = props.getProperty("db.password");
-        }
-
-        DB_URL = url;
-        DB_USER = user;
-        DB_PASSWORD = password;
-    }
+    private final ConnectionPool pool;
+    private final QueryMetrics metrics;
+    // Save whole aggregates through save_cv_aggregate instead of per-table statements
+    private final boolean saveViaFunction;
+    // Load a CV with one JSON-aggregating query instead of one query per table
+    private final boolean fetchAsJson;
+
+    // Connection failure handling
+    private final CircuitBreaker breaker;
+    private final ScheduledExecutorService healthCheck;
+    private final int retryAttempts;
+    private final long retryBaseDelayMillis;
+    private final long retryMaxDelayMillis;
+
+    // Read replica (db.replica.url); null when all reads go to the primary
+    private final ConnectionPool replicaPool;
+    private volatile boolean replicaUsable = true;
+    private final long replicaMaxLagMillis;
+    private final long readYourWritesMillis;
+    // Until when reads of a user's or CV's data stay on the primary after a write
+    private final Map<Integer, Long> recentUserWrites = new ConcurrentHashMap<>();
+    private final Map<Integer, Long> recentCVWrites = new ConcurrentHashMap<>();
+
+    // Read-through caches of loaded aggregates, by CV id and by user id
+    private final LruCache<Integer, CV> cvCache;
+    private final LruCache<Integer, List<CV>> userCVCache;
+    private final LruCache<Integer, List<CVSummary>> summaryCache;
+
+    private static final String[] GENERATED_ID = { "id" };
+    private static final int HEALTH_CHECK_TIMEOUT_SECONDS = 2;
+    // Replay lag of a standby in ms; 0 when fully replayed or not a standby at all
+    private static final String REPLICA_LAG_QUERY = "SELECT CASE " +
+            "WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+            "ELSE coalesce((extract(epoch FROM now() - pg_last_xact_replay_timestamp()) * 1000)::bigint, 0) END";
+
+    // db.save.mode values
+    public static final String SAVE_MODE_FUNCTION = "function";
+    public static final String SAVE_MODE_STATEMENTS = "statements";
+    // db.fetch.mode values
+    public static final String FETCH_MODE_JSON = "json";
+    public static final String FETCH_MODE_QUERIES = "queries";
+
+    // Hot read queries, also checked with EXPLAIN by SchemaMigrator at startup
+    static final String CVS_BY_USER_QUERY = "SELECT * FROM cvs WHERE user_id = ? ORDER BY id";
+    static final String CV_SUMMARIES_QUERY = "SELECT c.id, c.title, c.updated_at, " +
+            "(SELECT count(*) FROM education e WHERE e.cv_id = c.id) AS education_count, " +
+            "(SELECT count(*) FROM experience x WHERE x.cv_id = c.id) AS experience_count, " +
+            "(SELECT count(*) FROM skills s WHERE s.cv_id = c.id) AS skill_count, " +
+            "(SELECT count(*) FROM languages l WHERE l.cv_id = c.id) AS language_count " +
+            "FROM cvs c WHERE c.user_id = ? ORDER BY c.updated_at DESC NULLS LAST, c.id";
+    static final String CV_BY_ID_QUERY = "SELECT * FROM cvs WHERE id = ?";
+    // The whole aggregate as one CVJson document; sections ordered by id like loadSections
+    static final String CV_AGGREGATE_QUERY = "SELECT json_build_object(" +
+            "'id', c.id, 'userId', c.user_id, 'title', c.title, 'fullName', c.full_name, " +
+            "'email', c.email, 'phone', c.phone, 'address', c.address, 'summary', c.summary, " +
+            "'education', (SELECT json_agg(json_build_object('id', e.id, 'institution', e.institution, " +
+                "'degree', e.degree, 'fieldOfStudy', e.field_of_study, 'startDate', e.start_date, " +
+                "'endDate', e.end_date, 'description', e.description) ORDER BY e.id) " +
+                "FROM education e WHERE e.cv_id = c.id), " +
+            "'experience', (SELECT json_agg(json_build_object('id', x.id, 'company', x.company, " +
+                "'position', x.position, 'location', x.location, 'startDate', x.start_date, " +
+                "'endDate', x.end_date, 'description', x.description) ORDER BY x.id) " +
+                "FROM experience x WHERE x.cv_id = c.id), " +
+            "'skills', (SELECT json_agg(json_build_object('id', s.id, 'name', s.name, 'level', s.level) " +
+                "ORDER BY s.id) FROM skills s WHERE s.cv_id = c.id), " +
+            "'languages', (SELECT json_agg(json_build_object('id', l.id, 'name', l.name, " +
+                "'proficiency', l.proficiency) ORDER BY l.id) FROM languages l WHERE l.cv_id = c.id)" +
+            ") FROM cvs c WHERE c.id = ?";
+
+    // Column names indexed by the models' field bit positions
+    private static final String[] CV_COLUMNS =
+            { "title", "full_name", "email", "phone", "address", "summary" };
+    private static final String[] EDUCATION_COLUMNS =
+            { "institution", "degree", "field_of_study", "start_date", "end_date", "description" };
+    private static final String[] EXPERIENCE_COLUMNS =
+            { "company", "position", "location", "start_date", "end_date", "description" };
+    private static final String[] SKILL_COLUMNS = { "name", "level" };
+    private static final String[] LANGUAGE_COLUMNS = { "name", "proficiency" };
 
     public static synchronized DatabaseHandler getInstance() {
         if (instance == null) {
-            instance = new DatabaseHandler();
+            // While the server is down, fail fast here too instead of waiting for a connect timeout
+            try {
+                instance = CircuitBreaker.getInstance().call(() -> {
+                    try {
+                        return new DatabaseHandler();
+                    } catch (RuntimeException e) {
+                        if (e.getCause() instanceof SQLException) {
+                            throw (SQLException) e.getCause();
+                        }
+                        throw e;
+                    }
+                });
+            } catch (SQLException e) {
+                throw new RuntimeException("❌ Database connection failed: " + e.getMessage(), e);
+            }
         }
         return instance;
     }
 
     private DatabaseHandler() {
+        if (DatabaseConfig.getUrl() == null) {
+            throw new RuntimeException("❌ database.properties not found in resources!");
+        }
+
+        Properties connectionProps = new Properties();
+        connectionProps.setProperty("user", DatabaseConfig.getUser());
+        connectionProps.setProperty("password", DatabaseConfig.getPassword());
+        // Let the driver collapse batched child inserts into multi-row INSERTs
+        connectionProps.setProperty("reWriteBatchedInserts",
+                DatabaseConfig.get("db.reWriteBatchedInserts", "true"));
+        // Bound how long a dead server or a dropped socket can block a call
+        connectionProps.setProperty("connectTimeout", DatabaseConfig.get("db.connectTimeoutSeconds", "5"));
+        connectionProps.setProperty("socketTimeout", DatabaseConfig.get("db.socketTimeoutSeconds", "60"));
+        connectionProps.setProperty("tcpKeepAlive", "true");
+
+        retryAttempts = Math.max(1, DatabaseConfig.getInt("db.retry.maxAttempts", 3));
+        retryBaseDelayMillis = DatabaseConfig.getInt("db.retry.baseDelayMs", 100);
+        retryMaxDelayMillis = DatabaseConfig.getInt("db.retry.maxDelayMs", 2_000);
+
+        saveViaFunction = SAVE_MODE_FUNCTION.equalsIgnoreCase(
+                DatabaseConfig.get("db.save.mode", SAVE_MODE_STATEMENTS).trim());
+        fetchAsJson = FETCH_MODE_JSON.equalsIgnoreCase(
+                DatabaseConfig.get("db.fetch.mode", FETCH_MODE_JSON).trim());
+
+        int cacheSize = DatabaseConfig.getInt("db.cache.maxSize", 500);
+        long cacheTtl = DatabaseConfig.getInt("db.cache.ttlSeconds", 300) * 1000L;
+        cvCache = new LruCache<>(cacheSize, cacheTtl);
+        userCVCache = new LruCache<>(cacheSize, cacheTtl);
+        summaryCache = new LruCache<>(cacheSize, cacheTtl);
+
         try {
-            connection = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
+            pool = new ConnectionPool(DatabaseConfig.getUrl(), connectionProps,
+                    DatabaseConfig.getInt("db.pool.minSize", 2),
+                    DatabaseConfig.getInt("db.pool.maxSize", 10),
+                    DatabaseConfig.getInt("db.pool.idleTimeoutMs", 600_000),
+                    DatabaseConfig.getInt("db.pool.acquireTimeoutMs", 5_000));
             System.out.println("✅ Database connected successfully!");
         } catch (SQLException e) {
             throw new RuntimeException("❌ Database connection failed: " + e.getMessage(), e);
         }
+
+        replicaPool = createReplicaPool(connectionProps);
+        replicaMaxLagMillis = DatabaseConfig.getInt("db.replica.maxLagMs", 2_000);
+        readYourWritesMillis = DatabaseConfig.getInt("db.replica.readYourWritesMs", 5_000);
+
+        metrics = QueryMetrics.getInstance();
+        if (DatabaseConfig.getBoolean("db.metrics.enabled", true)) {
+            // Per-statement round trips, rows and slow-query logging
+            pool.setStatementDecorator(metrics);
+            if (replicaPool != null) {
+                replicaPool.setStatementDecorator(metrics);
+            }
+        }
+
+        breaker = CircuitBreaker.getInstance();
+        healthCheck = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "db-health-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        breaker.addListener(this::scheduleHealthCheck);
+        if (replicaPool != null) {
+            long period = DatabaseConfig.getInt("db.replica.lagCheckMs", 1_000);
+            healthCheck.scheduleWithFixedDelay(this::checkReplicaLag, 0, period, TimeUnit.MILLISECONDS);
+        }
+
+        prepareSchema();
+
+        if (DatabaseConfig.getBoolean("db.notify.enabled", true)) {
+            // Evict what other instances change; registered before any view can listen
+            CVChangeNotifier notifier = CVChangeNotifier.getInstance();
+            notifier.addListener(new CVChangeNotifier.Listener() {
+                @Override
+                public void cvsChanged(Set<Integer> cvIds, Set<Integer> userIds) {
+                    for (Integer cvId : cvIds) {
+                        cvCache.invalidate(cvId);
+                    }
+                    for (Integer userId : userIds) {
+                        invalidateUser(userId);
+                    }
+                }
+
+                @Override
+                public void changesMissed() {
+                    cvCache.invalidateAll();
+                    userCVCache.invalidateAll();
+                    summaryCache.invalidateAll();
+                }
+            });
+            // Notifications are only sent on the primary
+            notifier.start(DatabaseConfig.getUrl(), connectionProps, pool::ownsBackend);
+        }
+    }
+
+    /**
+     * Opens the pool of the read replica, if one is configured. It starts
+     * empty, so a replica that is down does not keep the application from
+     * starting; the lag check finds out.
+     */
+    private static ConnectionPool createReplicaPool(Properties primaryProps) {
+        String url = DatabaseConfig.getReplicaUrl();
+        if (url == null) {
+            return null;
+        }
+
+        Properties connectionProps = new Properties();
+        connectionProps.putAll(primaryProps);
+        connectionProps.setProperty("user", DatabaseConfig.getReplicaUser());
+        connectionProps.setProperty("password", DatabaseConfig.getReplicaPassword());
+        // Never let a write slip through to the replica
+        connectionProps.setProperty("readOnly", "true");
+
+        try {
+            ConnectionPool replica = new ConnectionPool(url, connectionProps, 0,
+                    DatabaseConfig.getInt("db.pool.maxSize", 10),
+                    DatabaseConfig.getInt("db.pool.idleTimeoutMs", 600_000),
+                    DatabaseConfig.getInt("db.pool.acquireTimeoutMs", 5_000));
+            System.out.println("✅ Reading from replica " + url);
+            return replica;
+        } catch (SQLException e) {
+            System.err.println("Read replica disabled: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Brings the schema up to date (db.migrate) and, if asked to
+     * (db.migrate.explain), checks that the hot queries are index-backed.
+     */
+    private void prepareSchema() {
+        if (!DatabaseConfig.getBoolean("db.migrate", true)) {
+            return;
+        }
+
+        try (Connection connection = pool.borrow()) {
+            SchemaMigrator migrator = new SchemaMigrator(connection);
+            migrator.migrate();
+
+            if (DatabaseConfig.getBoolean("db.migrate.explain", false)) {
+                try {
+                    migrator.explainHotQueries();
+                } catch (SQLException e) {
+                    // Only a diagnostic; never block startup on it
+                    System.err.println("Query plan self-check failed: " + e.getMessage());
+                }
+            }
+        } catch (SQLException e) {
+            pool.close();
+            throw new RuntimeException("❌ Schema migration failed: " + e.getMessage(), e);
+        }
     }
 
     private SQLException translateSQLException(SQLException e) {
         String sqlState = e.getSQLState();
         String message = e.getMessage();
 
+        if (sqlState == null) {
+            return e;
+        }
+
         switch (sqlState) {
             case "23505": // Unique violation
                 if (message.contains("users_username_key")) {
@@ -107,30 +335,77 @@ public class DatabaseHandler {
         return e;
     }
 
-    public Connection getConnection() {
-        return connection;
+    /**
+     * Borrows a pooled connection. The caller must close it to return it to the pool.
+     */
+    public Connection getConnection() throws SQLException {
+        return pool.borrow();
+    }
+
+    public QueryMetrics getQueryMetrics() {
+        return metrics;
+    }
+
+    public ConnectionPool.PoolStats getPoolStats() {
+        return pool.getStats();
+    }
+
+    /**
+     * Returns the read replica's pool statistics, or null without a replica.
+     */
+    public ConnectionPool.PoolStats getReplicaPoolStats() {
+        return replicaPool != null ? replicaPool.getStats() : null;
+    }
+
+    public LruCache.Stats getCVCacheStats() {
+        return cvCache.getStats();
+    }
+
+    public LruCache.Stats getUserCacheStats() {
+        return userCVCache.getStats();
+    }
+
+    public LruCache.Stats getSummaryCacheStats() {
+        return summaryCache.getStats();
     }
 
     // User operations
+    @Override
     public boolean registerUser(User user) throws SQLException {
         String insert = "INSERT INTO users (username, email, password) VALUES (?, ?, ?)";
 
-        try (PreparedStatement statement = connection.prepareStatement(insert)) {
-            statement.setString(1, user.getUsername());
-            statement.setString(2, user.getEmail());
-            statement.setString(3, user.getPassword());
-            int result = statement.executeUpdate();
-
-            return result > 0;
-        } catch (SQLException e) {
-        	throw translateSQLException(e);
-        }
+        return write("registerUser", () -> {
+            try (Connection connection = pool.borrow();
+                 PreparedStatement statement = connection.prepareStatement(insert)) {
+                statement.setString(1, user.getUsername());
+                statement.setString(2, user.getEmail());
+                statement.setString(3, user.getPassword());
+                int result = statement.executeUpdate();
+
+                return result > 0;
+            } catch (SQLException e) {
+            	throw translateSQLException(e);
+            }
+        });
     }
 
+    @Override
     public User loginUser(String username, String password) throws SQLException {
+        return read("loginUser", false, source -> {
+            User user = findUser(source, username, password);
+            if (user == null && source != pool) {
+                // A just-registered account may not have reached the replica yet
+                user = findUser(pool, username, password);
+            }
+            return user;
+        });
+    }
+
+    private User findUser(ConnectionPool source, String username, String password) throws SQLException {
         String query = "SELECT * FROM users WHERE username = ? AND password = ?";
 
-        try (PreparedStatement statement = connection.prepareStatement(query)) {
+        try (Connection connection = source.borrow();
+             PreparedStatement statement = connection.prepareStatement(query)) {
             statement.setString(1, username);
             statement.setString(2, password);
 
@@ -152,7 +427,87 @@ public class DatabaseHandler {
     }
 
     // CV operations
+    @Override
     public int createCV(CV cv) throws SQLException {
+        try {
+            int cvId = write("createCV", () -> saveViaFunction
+                    ? (saveAggregate(cv, true) ? cv.getId() : -1)
+                    : inTransaction(connection -> insertCV(connection, cv)));
+
+            if (cvId > 0) {
+                cv.markClean();
+                cacheSavedCV(cv);
+            }
+            return cvId;
+        } catch (SQLException e) {
+        	throw translateSQLException(e);
+        }
+    }
+
+    @Override
+    public boolean updateCV(CV cv) throws SQLException {
+        if (cv.isTracked() && !cv.isDirty()) {
+            return true; // Nothing changed since the last load or save
+        }
+
+        try {
+            boolean updated = write("updateCV", () -> saveViaFunction
+                    ? saveAggregate(cv, false)
+                    : inTransaction(connection -> writeCV(connection, cv)));
+
+            if (updated) {
+                cv.markClean();
+                cacheSavedCV(cv);
+            }
+            return updated;
+        } catch (SQLException e) {
+            // The stored state is unknown; make the next read go to the database
+            cvCache.invalidate(cv.getId());
+        	throw translateSQLException(e);
+        }
+    }
+
+    /**
+     * Writes several CVs in one transaction, e.g. coalesced edits from the
+     * {@link EditJournal}. Returns how many CVs still existed and were updated.
+     */
+    @Override
+    public int updateCVs(Collection<CV> cvs) throws SQLException {
+        List<CV> changed = new ArrayList<>();
+        for (CV cv : cvs) {
+            if (!cv.isTracked() || cv.isDirty()) {
+                changed.add(cv);
+            }
+        }
+        if (changed.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            List<CV> updated = write("updateCVs", () -> inTransaction(connection -> {
+                List<CV> written = new ArrayList<>();
+                for (CV cv : changed) {
+                    if (saveViaFunction ? saveAggregate(connection, cv, false) : writeCV(connection, cv)) {
+                        written.add(cv);
+                    }
+                }
+                return written;
+            }));
+
+            for (CV cv : updated) {
+                cv.markClean();
+                cacheSavedCV(cv);
+            }
+            return updated.size();
+        } catch (SQLException e) {
+            for (CV cv : changed) {
+                cvCache.invalidate(cv.getId());
+            }
+        	throw translateSQLException(e);
+        }
+    }
+
+    private int insertCV(Connection connection, CV cv) throws SQLException {
         String insert = "INSERT INTO cvs (user_id, title, full_name, email, phone, address, summary) " +
                        "VALUES (?, ?, ?, ?, ?, ?, ?)";
 
@@ -165,387 +520,1028 @@ public class DatabaseHandler {
             statement.setString(6, cv.getAddress());
             statement.setString(7, cv.getSummary());
 
-            int result = statement.executeUpdate();
+            if (statement.executeUpdate() == 0) {
+                return -1;
+            }
 
-            if (result > 0) {
-                ResultSet generatedKeys = statement.getGeneratedKeys();
-                if (generatedKeys.next()) {
-                    int cvId = generatedKeys.getInt(1);
-                    cv.setId(cvId);
+            try (ResultSet generatedKeys = statement.getGeneratedKeys()) {
+                if (!generatedKeys.next()) {
+                    return -1;
+                }
+                cv.setId(generatedKeys.getInt(1));
+            }
+        }
 
-                    // Save related data
-                    for (Education education : cv.getEducation()) {
-                        saveEducation(education, cvId);
-                    }
+        // Save related data
+        insertEducation(connection, cv.getId(), cv.getEducation());
+        insertExperience(connection, cv.getId(), cv.getExperience());
+        insertSkills(connection, cv.getId(), cv.getSkills());
+        insertLanguages(connection, cv.getId(), cv.getLanguages());
 
-                    for (Experience experience : cv.getExperience()) {
-                        saveExperience(experience, cvId);
-                    }
+        return cv.getId();
+    }
 
-                    for (Skill skill : cv.getSkills()) {
-                        saveSkill(skill, cvId);
-                    }
+    /**
+     * Saves the aggregate with one call of the save_cv_aggregate function (see
+     * V3__save_cv_aggregate.sql) and applies the ids it assigned.
+     * A tracked CV sends only the sections that changed; the function writes
+     * only rows and headers whose values differ. The function runs atomically,
+     * so outside a transaction this is a single round trip. Returns false if
+     * the CV no longer exists.
+     */
+    private boolean saveAggregate(CV cv, boolean create) throws SQLException {
+        try (Connection connection = pool.borrow()) {
+            return saveAggregate(connection, cv, create);
+        }
+    }
 
-                    for (Language language : cv.getLanguages()) {
-                        saveLanguage(language, cvId);
-                    }
+    private boolean saveAggregate(Connection connection, CV cv, boolean create) throws SQLException {
+        // A new CV is always inserted, whatever id the object carries
+        String call = create
+                ? "SELECT save_cv_aggregate(?::jsonb || jsonb_build_object('id', 0))"
+                : "SELECT save_cv_aggregate(?::jsonb)";
+        int sections = create || !cv.isTracked() ? CVJson.ALL_SECTIONS : changedSections(cv);
+
+        String saved;
+        try (PreparedStatement statement = connection.prepareStatement(call)) {
+            statement.setString(1, CVJson.toJson(cv, sections));
+            try (ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                saved = resultSet.getString(1);
+            }
+        }
+        if (saved == null) {
+            return false;
+        }
 
-                    return cvId;
+        Map<String, List<Integer>> sectionIds = new HashMap<>();
+        int cvId = 0;
+        try {
+            JsonReader json = new JsonReader(new StringReader(saved));
+            json.beginObject();
+            while (json.hasNext()) {
+                String name = json.nextName();
+                if (name.equals("id")) {
+                    cvId = json.nextInt();
+                    continue;
+                }
+                List<Integer> ids = new ArrayList<>();
+                json.beginArray();
+                while (json.hasNext()) {
+                    ids.add(json.nextInt());
                 }
+                json.endArray();
+                sectionIds.put(name, ids);
             }
-        } catch (SQLException e) {
-        	throw translateSQLException(e);
+            json.endObject();
+        } catch (IOException e) {
+            throw new SQLException("Unexpected result from save_cv_aggregate: " + saved, e);
         }
 
-        return -1;
+        cv.setId(cvId);
+        if ((sections & CVJson.EDUCATION) != 0) {
+            assignIds(cvId, cv.getEducation(), sectionIds.get("education"));
+        }
+        if ((sections & CVJson.EXPERIENCE) != 0) {
+            assignIds(cvId, cv.getExperience(), sectionIds.get("experience"));
+        }
+        if ((sections & CVJson.SKILLS) != 0) {
+            assignIds(cvId, cv.getSkills(), sectionIds.get("skills"));
+        }
+        if ((sections & CVJson.LANGUAGES) != 0) {
+            assignIds(cvId, cv.getLanguages(), sectionIds.get("languages"));
+        }
+        return true;
     }
 
-    public boolean updateCV(CV cv) throws SQLException {
-        String update = "UPDATE cvs SET title = ?, full_name = ?, email = ?, phone = ?, " +
-                       "address = ?, summary = ? WHERE id = ?";
+    private static int changedSections(CV cv) {
+        int sections = 0;
+        if (!cv.getEducationChanges().isEmpty()) {
+            sections |= CVJson.EDUCATION;
+        }
+        if (!cv.getExperienceChanges().isEmpty()) {
+            sections |= CVJson.EXPERIENCE;
+        }
+        if (!cv.getSkillChanges().isEmpty()) {
+            sections |= CVJson.SKILLS;
+        }
+        if (!cv.getLanguageChanges().isEmpty()) {
+            sections |= CVJson.LANGUAGES;
+        }
+        return sections;
+    }
+
+    private static void assignIds(int cvId, List<? extends Tracked> rows, List<Integer> ids) throws SQLException {
+        if (ids == null || ids.size() != rows.size()) {
+            throw new SQLException("save_cv_aggregate returned " + (ids == null ? 0 : ids.size()) +
+                    " ids for " + rows.size() + " rows");
+        }
+        for (int i = 0; i < rows.size(); i++) {
+            rows.get(i).setId(ids.get(i));
+            rows.get(i).setCvId(cvId);
+        }
+    }
+
+    private boolean writeCV(Connection connection, CV cv) throws SQLException {
+        // Tracked CVs only write the columns that changed
+        int fields = cv.isTracked() ? cv.getDirtyFields() : allFields(CV_COLUMNS);
+        String update = "UPDATE cvs SET " + setClause(CV_COLUMNS, fields, "updated_at = CURRENT_TIMESTAMP") +
+                       " WHERE id = ?";
 
         try (PreparedStatement statement = connection.prepareStatement(update)) {
-            statement.setString(1, cv.getTitle());
-            statement.setString(2, cv.getFullName());
-            statement.setString(3, cv.getEmail());
-            statement.setString(4, cv.getPhone());
-            statement.setString(5, cv.getAddress());
-            statement.setString(6, cv.getSummary());
-            statement.setInt(7, cv.getId());
-
-            int result = statement.executeUpdate();
-
-            if (result > 0) {
-                // Delete existing related data
-                deleteEducationByCvId(cv.getId());
-                deleteExperienceByCvId(cv.getId());
-                deleteSkillsByCvId(cv.getId());
-                deleteLanguagesByCvId(cv.getId());
-
-                // Save updated related data
-                for (Education education : cv.getEducation()) {
-                    saveEducation(education, cv.getId());
-                }
+            int index = bindFields(statement, 1, cv, fields, CV_COLUMNS, DatabaseHandler::bindCVField);
+            statement.setInt(index, cv.getId());
 
-                for (Experience experience : cv.getExperience()) {
-                    saveExperience(experience, cv.getId());
-                }
+            if (statement.executeUpdate() == 0) {
+                return false;
+            }
+        }
 
-                for (Skill skill : cv.getSkills()) {
-                    saveSkill(skill, cv.getId());
-                }
+        if (cv.isTracked()) {
+            applySectionChanges(connection, cv);
+        } else {
+            // Bring related data in line with the stored rows
+            syncSections(connection, cv);
+        }
+
+        return true;
+    }
 
-                for (Language language : cv.getLanguages()) {
-                    saveLanguage(language, cv.getId());
+    /**
+     * Runs an idempotent read as the named operation, on the replica unless
+     * {@code primaryOnly} is set (see {@link #routeRead}). Transient failures
+     * (lost connections, serialization failures, deadlocks) are retried up to
+     * db.retry.maxAttempts times with exponential backoff and full jitter, so
+     * clients do not come back in lockstep after an outage.
+     */
+    private <T> T read(String operation, boolean primaryOnly, ReadWork<T> work) throws SQLException {
+        return metrics.record(operation, () -> {
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    return guarded(() -> routeRead(primaryOnly, work));
+                } catch (SQLException e) {
+                    if (attempt >= retryAttempts || e instanceof CircuitBreaker.OpenException || !isTransient(e)) {
+                        throw e;
+                    }
+                    long ceiling = Math.min(retryMaxDelayMillis, retryBaseDelayMillis << Math.min(attempt - 1, 20));
+                    try {
+                        Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+                    } catch (InterruptedException interrupted) {
+                        Thread.currentThread().interrupt();
+                        throw e;
+                    }
                 }
+            }
+        });
+    }
+
+    private interface ReadWork<T> {
+        T run(ConnectionPool source) throws SQLException;
+    }
 
-                return true;
+    /**
+     * Runs the read on the replica when one is configured, reachable and not
+     * lagging more than db.replica.maxLagMs behind, and the data was not
+     * written within the read-your-writes window; otherwise on the primary.
+     * A replica that cannot be reached is skipped until the next lag check
+     * finds it healthy again.
+     */
+    private <T> T routeRead(boolean primaryOnly, ReadWork<T> work) throws SQLException {
+        ConnectionPool replica = replicaPool;
+        if (replica != null && replicaUsable && !primaryOnly) {
+            try {
+                return work.run(replica);
+            } catch (SQLException e) {
+                if (!CircuitBreaker.isConnectionFailure(e)) {
+                    throw e;
+                }
+                replicaUsable = false;
+                replica.discardIdle();
+                System.err.println("Read replica unreachable, reading from the primary: " + e.getMessage());
             }
+        }
+        return work.run(pool);
+    }
+
+    /**
+     * Measures the replica's replay lag and decides whether reads may use it.
+     * A server that is not in recovery (e.g. a second primary in tests)
+     * counts as caught up.
+     */
+    private void checkReplicaLag() {
+        long lagMillis;
+        try (Connection connection = replicaPool.borrow();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(REPLICA_LAG_QUERY)) {
+            resultSet.next();
+            lagMillis = resultSet.getLong(1);
         } catch (SQLException e) {
-        	throw translateSQLException(e);
+            if (replicaUsable) {
+                System.err.println("Read replica unavailable: " + e.getMessage());
+            }
+            replicaUsable = false;
+            return;
+        }
+
+        boolean usable = lagMillis <= replicaMaxLagMillis;
+        if (usable != replicaUsable) {
+            System.err.println(usable
+                    ? "Read replica caught up (" + lagMillis + " ms behind); reading from it again"
+                    : "Read replica is " + lagMillis + " ms behind; reading from the primary");
+        }
+        replicaUsable = usable;
+    }
+
+    // True while reads of the key must see this client's own recent writes
+    private static boolean wroteRecently(Map<Integer, Long> recentWrites, int key) {
+        Long until = recentWrites.get(key);
+        if (until == null) {
+            return false;
+        }
+        if (until < System.currentTimeMillis()) {
+            recentWrites.remove(key, until);
+            return false;
         }
+        return true;
+    }
 
-        return false;
+    private void markWritten(Map<Integer, Long> recentWrites, int key) {
+        if (replicaPool != null) {
+            recentWrites.put(key, System.currentTimeMillis() + readYourWritesMillis);
+        }
     }
 
-    public boolean deleteCV(int cvId) {
-        // Delete related data first
-        deleteEducationByCvId(cvId);
-        deleteExperienceByCvId(cvId);
-        deleteSkillsByCvId(cvId);
-        deleteLanguagesByCvId(cvId);
+    /**
+     * Runs a write as the named operation. Writes are never retried: after a
+     * lost connection it is unknown whether the commit reached the server.
+     */
+    private <T> T write(String operation, QueryMetrics.Work<T> work) throws SQLException {
+        return metrics.record(operation, () -> guarded(work));
+    }
 
-        // Delete CV
-        String delete = "DELETE FROM cvs WHERE id = ?";
+    // Fails fast while the circuit breaker is open
+    private <T> T guarded(QueryMetrics.Work<T> work) throws SQLException {
+        try {
+            return breaker.call(work);
+        } catch (SQLException e) {
+            if (CircuitBreaker.isConnectionFailure(e) && !(e instanceof CircuitBreaker.OpenException)) {
+                // A restarted server leaves every pooled connection dead
+                pool.discardIdle();
+            }
+            throw e;
+        }
+    }
 
-        try (PreparedStatement statement = connection.prepareStatement(delete)) {
-            statement.setInt(1, cvId);
+    private static boolean isTransient(SQLException e) {
+        String sqlState = e.getSQLState();
+        return CircuitBreaker.isConnectionFailure(e)
+                || "40001".equals(sqlState)  // Serialization failure
+                || "40P01".equals(sqlState); // Deadlock detected
+    }
 
-            int result = statement.executeUpdate();
-            return result > 0;
+    /**
+     * Probes the database through the circuit breaker. Runs on its own while
+     * the breaker is open, so the link recovers (and the UI says so) without
+     * waiting for the next user action.
+     */
+    public boolean checkHealth() {
+        try {
+            return guarded(() -> {
+                try (Connection connection = pool.borrow()) {
+                    if (!connection.isValid(HEALTH_CHECK_TIMEOUT_SECONDS)) {
+                        throw new SQLException("Connection validation failed", "08006");
+                    }
+                    return true;
+                }
+            });
         } catch (SQLException e) {
-            e.printStackTrace();
             return false;
         }
     }
 
+    private void scheduleHealthCheck(CircuitBreaker.State state, long retryAtMillis) {
+        if (state == CircuitBreaker.State.OPEN) {
+            healthCheck.schedule(this::checkHealth,
+                    Math.max(0, retryAtMillis - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private interface TransactionWork<T> {
+        T execute(Connection connection) throws SQLException;
+    }
+
+    /**
+     * Runs the work on one pooled connection inside a single transaction,
+     * committing once on success and rolling back on any failure.
+     */
+    private <T> T inTransaction(TransactionWork<T> work) throws SQLException {
+        try (Connection connection = pool.borrow()) {
+            connection.setAutoCommit(false);
+            try {
+                T result = work.execute(connection);
+                connection.commit();
+                return result;
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            }
+        }
+    }
+
+    @Override
+    public boolean deleteCV(int cvId) throws SQLException {
+        return deleteCVs(Collections.singletonList(cvId)) > 0;
+    }
+
+    /**
+     * Deletes the CVs with one statement; their sections go with them through
+     * the ON DELETE CASCADE foreign keys, all in the statement's transaction.
+     * Returns how many CVs existed.
+     */
+    @Override
+    public int deleteCVs(Collection<Integer> cvIds) throws SQLException {
+        if (cvIds.isEmpty()) {
+            return 0;
+        }
+        String delete = "DELETE FROM cvs WHERE id = ANY(?) RETURNING id, user_id";
+
+        return write("deleteCVs", () -> {
+            try (Connection connection = pool.borrow();
+                 PreparedStatement statement = connection.prepareStatement(delete)) {
+                Array ids = connection.createArrayOf("integer", cvIds.toArray());
+                try {
+                    statement.setArray(1, ids);
+
+                    int deleted = 0;
+                    try (ResultSet resultSet = statement.executeQuery()) {
+                        while (resultSet.next()) {
+                            invalidateUser(resultSet.getInt("user_id"));
+                            deleted++;
+                        }
+                    }
+                    return deleted;
+                } finally {
+                    ids.free();
+                }
+            } catch (SQLException e) {
+            	throw translateSQLException(e);
+            } finally {
+                for (Integer cvId : cvIds) {
+                    cvCache.invalidate(cvId);
+                    markWritten(recentCVWrites, cvId);
+                }
+            }
+        });
+    }
+
+    @Override
     public List<CV> getCVsByUserId(int userId) {
+        List<CV> cached = userCVCache.get(userId);
+        if (cached == null) {
+            long generation = userCVCache.generation();
+            try {
+                cached = copyCVs(read("getCVsByUserId", wroteRecently(recentUserWrites, userId),
+                        source -> fetchCVsByUserId(source, userId)));
+            } catch (SQLException e) {
+                e.printStackTrace();
+                return new ArrayList<>();
+            }
+            userCVCache.put(userId, cached, generation);
+        }
+        return copyCVs(cached);
+    }
+
+    private List<CV> fetchCVsByUserId(ConnectionPool source, int userId) throws SQLException {
         List<CV> cvList = new ArrayList<>();
-        String query = "SELECT * FROM cvs WHERE user_id = ?";
 
-        try (PreparedStatement statement = connection.prepareStatement(query)) {
+        try (Connection connection = source.borrow();
+             PreparedStatement statement = connection.prepareStatement(CVS_BY_USER_QUERY)) {
             statement.setInt(1, userId);
 
-            ResultSet resultSet = statement.executeQuery();
-
-            while (resultSet.next()) {
-                CV cv = new CV();
-                cv.setId(resultSet.getInt("id"));
-                cv.setUserId(resultSet.getInt("user_id"));
-                cv.setTitle(resultSet.getString("title"));
-                cv.setFullName(resultSet.getString("full_name"));
-                cv.setEmail(resultSet.getString("email"));
-                cv.setPhone(resultSet.getString("phone"));
-                cv.setAddress(resultSet.getString("address"));
-                cv.setSummary(resultSet.getString("summary"));
-
-                // Load related data
-                loadEducation(cv);
-                loadExperience(cv);
-                loadSkills(cv);
-                loadLanguages(cv);
+            Map<Integer, CV> cvsById = new LinkedHashMap<>();
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    CV cv = mapCV(resultSet);
+                    cvsById.put(cv.getId(), cv);
+                }
+            }
 
+            // Load related data for all CVs at once
+            loadSections(connection, cvsById);
+            for (CV cv : cvsById.values()) {
+                cv.markClean();
                 cvList.add(cv);
             }
-        } catch (SQLException e) {
-            e.printStackTrace();
         }
 
         return cvList;
     }
 
+    /**
+     * Returns the dashboard projection of a user's CVs without loading any
+     * section rows, most recently updated first.
+     */
+    @Override
+    public List<CVSummary> getCVSummariesByUserId(int userId) {
+        List<CVSummary> cached = summaryCache.get(userId);
+        if (cached == null) {
+            long generation = summaryCache.generation();
+            try {
+                cached = copySummaries(read("getCVSummariesByUserId", wroteRecently(recentUserWrites, userId),
+                        source -> fetchCVSummariesByUserId(source, userId)));
+            } catch (SQLException e) {
+                e.printStackTrace();
+                return new ArrayList<>();
+            }
+            summaryCache.put(userId, cached, generation);
+        }
+        return copySummaries(cached);
+    }
+
+    private List<CVSummary> fetchCVSummariesByUserId(ConnectionPool source, int userId) throws SQLException {
+        List<CVSummary> summaries = new ArrayList<>();
+
+        try (Connection connection = source.borrow();
+             PreparedStatement statement = connection.prepareStatement(CV_SUMMARIES_QUERY)) {
+            statement.setInt(1, userId);
+
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    CVSummary summary = new CVSummary();
+                    summary.setId(resultSet.getInt("id"));
+                    summary.setTitle(resultSet.getString("title"));
+                    Timestamp updatedAt = resultSet.getTimestamp("updated_at");
+                    summary.setUpdatedAt(updatedAt != null ? updatedAt.toLocalDateTime() : null);
+                    summary.setEducationCount(resultSet.getInt("education_count"));
+                    summary.setExperienceCount(resultSet.getInt("experience_count"));
+                    summary.setSkillCount(resultSet.getInt("skill_count"));
+                    summary.setLanguageCount(resultSet.getInt("language_count"));
+                    summaries.add(summary);
+                }
+            }
+        }
+
+        return summaries;
+    }
+
+    @Override
     public CV getCVById(int cvId) {
-        String query = "SELECT * FROM cvs WHERE id = ?";
+        CV cached = cvCache.get(cvId);
+        if (cached == null) {
+            long generation = cvCache.generation();
+            try {
+                CV cv = read("getCVById", wroteRecently(recentCVWrites, cvId),
+                        source -> fetchAsJson ? fetchCVAggregate(source, cvId) : fetchCVById(source, cvId));
+                if (cv == null) {
+                    return null;
+                }
+                cached = cv.copy();
+            } catch (SQLException e) {
+                e.printStackTrace();
+                return null;
+            }
+            cvCache.put(cvId, cached, generation);
+        }
+        return cached.copy();
+    }
 
-        try (PreparedStatement statement = connection.prepareStatement(query)) {
+    /**
+     * Loads the CV and all its sections in one statement: the server builds
+     * the aggregate with json_agg and it is decoded straight from the result
+     * stream. Same result as {@link #fetchCVById(ConnectionPool, int)}, in one round trip instead
+     * of five.
+     */
+    private CV fetchCVAggregate(ConnectionPool source, int cvId) throws SQLException {
+        try (Connection connection = source.borrow();
+             PreparedStatement statement = connection.prepareStatement(CV_AGGREGATE_QUERY)) {
             statement.setInt(1, cvId);
 
-            ResultSet resultSet = statement.executeQuery();
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (resultSet.next()) {
+                    try (Reader json = resultSet.getCharacterStream(1)) {
+                        CV cv = CVJson.read(json);
+                        cv.markClean();
+                        return cv;
+                    } catch (IOException e) {
+                        throw new SQLException("Malformed CV aggregate for id " + cvId, e);
+                    }
+                }
+            }
+        }
 
-            if (resultSet.next()) {
-                CV cv = new CV();
-                cv.setId(resultSet.getInt("id"));
-                cv.setUserId(resultSet.getInt("user_id"));
-                cv.setTitle(resultSet.getString("title"));
-                cv.setFullName(resultSet.getString("full_name"));
-                cv.setEmail(resultSet.getString("email"));
-                cv.setPhone(resultSet.getString("phone"));
-                cv.setAddress(resultSet.getString("address"));
-                cv.setSummary(resultSet.getString("summary"));
-
-                // Load related data
-                loadEducation(cv);
-                loadExperience(cv);
-                loadSkills(cv);
-                loadLanguages(cv);
-
-                return cv;
+        return null;
+    }
+
+    private CV fetchCVById(ConnectionPool source, int cvId) throws SQLException {
+        try (Connection connection = source.borrow();
+             PreparedStatement statement = connection.prepareStatement(CV_BY_ID_QUERY)) {
+            statement.setInt(1, cvId);
+
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (resultSet.next()) {
+                    CV cv = mapCV(resultSet);
+
+                    // Load related data
+                    loadSections(connection, Collections.singletonMap(cv.getId(), cv));
+                    cv.markClean();
+
+                    return cv;
+                }
             }
-        } catch (SQLException e) {
-            e.printStackTrace();
         }
 
         return null;
     }
 
+    // Cache snapshots are never handed out directly, so editor changes cannot leak into them
+    private static List<CV> copyCVs(List<CV> cvs) {
+        List<CV> copies = new ArrayList<>(cvs.size());
+        for (CV cv : cvs) {
+            copies.add(cv.copy());
+        }
+        return copies;
+    }
+
+    private static List<CVSummary> copySummaries(List<CVSummary> summaries) {
+        List<CVSummary> copies = new ArrayList<>(summaries.size());
+        for (CVSummary summary : summaries) {
+            copies.add(summary.copy());
+        }
+        return copies;
+    }
+
+    void invalidateUser(int userId) {
+        userCVCache.invalidate(userId);
+        summaryCache.invalidate(userId);
+        markWritten(recentUserWrites, userId);
+    }
+
+    private void cacheSavedCV(CV cv) {
+        cvCache.put(cv.getId(), cv.copy());
+        markWritten(recentCVWrites, cv.getId());
+        invalidateUser(cv.getUserId());
+    }
+
+    static CV mapCV(ResultSet resultSet) throws SQLException {
+        CV cv = new CV();
+        cv.setId(resultSet.getInt("id"));
+        cv.setUserId(resultSet.getInt("user_id"));
+        cv.setTitle(resultSet.getString("title"));
+        cv.setFullName(resultSet.getString("full_name"));
+        cv.setEmail(resultSet.getString("email"));
+        cv.setPhone(resultSet.getString("phone"));
+        cv.setAddress(resultSet.getString("address"));
+        cv.setSummary(resultSet.getString("summary"));
+        return cv;
+    }
+
     // Helper methods for related data
-    private void saveEducation(Education education, int cvId) throws SQLException {
+    private void insertEducation(Connection connection, int cvId, List<Education> educationList) throws SQLException {
         String insert = "INSERT INTO education (cv_id, institution, degree, field_of_study, start_date, end_date, description) " +
                        "VALUES (?, ?, ?, ?, ?, ?, ?)";
+        if (educationList.isEmpty()) {
+            return;
+        }
 
-        try (PreparedStatement statement = connection.prepareStatement(insert)) {
-            statement.setInt(1, cvId);
-            statement.setString(2, education.getInstitution());
-            statement.setString(3, education.getDegree());
-            statement.setString(4, education.getFieldOfStudy());
-            statement.setDate(5,  java.sql.Date.valueOf(education.getStartDate()));
-            statement.setDate(6,  java.sql.Date.valueOf(education.getEndDate()));
-            statement.setString(7, education.getDescription());
+        try (PreparedStatement statement = connection.prepareStatement(insert, GENERATED_ID)) {
+            for (Education education : educationList) {
+                statement.setInt(1, cvId);
+                statement.setString(2, education.getInstitution());
+                statement.setString(3, education.getDegree());
+                statement.setString(4, education.getFieldOfStudy());
+                statement.setDate(5, toSqlDate(education.getStartDate()));
+                statement.setDate(6, toSqlDate(education.getEndDate()));
+                statement.setString(7, education.getDescription());
+                statement.addBatch();
+            }
+            statement.executeBatch();
 
-            statement.executeUpdate();
-        } catch (SQLException e) {
-        	throw translateSQLException(e);
+            try (ResultSet generatedKeys = statement.getGeneratedKeys()) {
+                for (Education education : educationList) {
+                    generatedKeys.next();
+                    education.setId(generatedKeys.getInt(1));
+                    education.setCvId(cvId);
+                }
+            }
         }
     }
 
-    private void saveExperience(Experience experience, int cvId) throws SQLException {
+    private void insertExperience(Connection connection, int cvId, List<Experience> experienceList) throws SQLException {
         String insert = "INSERT INTO experience (cv_id, company, position, location, start_date, end_date, description) " +
                        "VALUES (?, ?, ?, ?, ?, ?, ?)";
+        if (experienceList.isEmpty()) {
+            return;
+        }
 
-        try (PreparedStatement statement = connection.prepareStatement(insert)) {
-            statement.setInt(1, cvId);
-            statement.setString(2, experience.getCompany());
-            statement.setString(3, experience.getPosition());
-            statement.setString(4, experience.getLocation());
-            statement.setDate(5,  java.sql.Date.valueOf(experience.getStartDate()));
-            statement.setDate(6,  java.sql.Date.valueOf(experience.getEndDate()));
-            statement.setString(7, experience.getDescription());
+        try (PreparedStatement statement = connection.prepareStatement(insert, GENERATED_ID)) {
+            for (Experience experience : experienceList) {
+                statement.setInt(1, cvId);
+                statement.setString(2, experience.getCompany());
+                statement.setString(3, experience.getPosition());
+                statement.setString(4, experience.getLocation());
+                statement.setDate(5, toSqlDate(experience.getStartDate()));
+                statement.setDate(6, toSqlDate(experience.getEndDate()));
+                statement.setString(7, experience.getDescription());
+                statement.addBatch();
+            }
+            statement.executeBatch();
 
-            statement.executeUpdate();
-        } catch (SQLException e) {
-        	throw translateSQLException(e);
+            try (ResultSet generatedKeys = statement.getGeneratedKeys()) {
+                for (Experience experience : experienceList) {
+                    generatedKeys.next();
+                    experience.setId(generatedKeys.getInt(1));
+                    experience.setCvId(cvId);
+                }
+            }
         }
     }
 
-    private void saveSkill(Skill skill, int cvId) throws SQLException {
+    private void insertSkills(Connection connection, int cvId, List<Skill> skills) throws SQLException {
         String insert = "INSERT INTO skills (cv_id, name, level) VALUES (?, ?, ?)";
+        if (skills.isEmpty()) {
+            return;
+        }
 
-        try (PreparedStatement statement = connection.prepareStatement(insert)) {
-            statement.setInt(1, cvId);
-            statement.setString(2, skill.getName());
-            statement.setInt(3, skill.getLevel());
+        try (PreparedStatement statement = connection.prepareStatement(insert, GENERATED_ID)) {
+            for (Skill skill : skills) {
+                statement.setInt(1, cvId);
+                statement.setString(2, skill.getName());
+                statement.setInt(3, skill.getLevel());
+                statement.addBatch();
+            }
+            statement.executeBatch();
 
-            statement.executeUpdate();
-        } catch (SQLException e) {
-        	throw translateSQLException(e);
+            try (ResultSet generatedKeys = statement.getGeneratedKeys()) {
+                for (Skill skill : skills) {
+                    generatedKeys.next();
+                    skill.setId(generatedKeys.getInt(1));
+                    skill.setCvId(cvId);
+                }
+            }
         }
     }
 
-    private void saveLanguage(Language language, int cvId) throws SQLException {
+    private void insertLanguages(Connection connection, int cvId, List<Language> languages) throws SQLException {
         String insert = "INSERT INTO languages (cv_id, name, proficiency) VALUES (?, ?, ?)";
+        if (languages.isEmpty()) {
+            return;
+        }
 
-        try (PreparedStatement statement = connection.prepareStatement(insert)) {
-            statement.setInt(1, cvId);
-            statement.setString(2, language.getName());
-            statement.setString(3, language.getProficiency());
+        try (PreparedStatement statement = connection.prepareStatement(insert, GENERATED_ID)) {
+            for (Language language : languages) {
+                statement.setInt(1, cvId);
+                statement.setString(2, language.getName());
+                statement.setString(3, language.getProficiency());
+                statement.addBatch();
+            }
+            statement.executeBatch();
 
-            statement.executeUpdate();
-        } catch (SQLException e) {
-        	throw translateSQLException(e);
+            try (ResultSet generatedKeys = statement.getGeneratedKeys()) {
+                for (Language language : languages) {
+                    generatedKeys.next();
+                    language.setId(generatedKeys.getInt(1));
+                    language.setCvId(cvId);
+                }
+            }
         }
     }
 
-    private void loadEducation(CV cv) {
-        String query = "SELECT * FROM education WHERE cv_id = ?";
-
-        try (PreparedStatement statement = connection.prepareStatement(query)) {
-            statement.setInt(1, cv.getId());
+    /**
+     * Compares the CV's sections with the stored rows by id and issues only the
+     * INSERT, UPDATE and DELETE statements needed to match them. Tables whose
+     * rows are unchanged are not written at all.
+     */
+    private void syncSections(Connection connection, CV cv) throws SQLException {
+        CV stored = new CV();
+        stored.setId(cv.getId());
+        loadSections(connection, Collections.singletonMap(stored.getId(), stored));
+
+        syncSection(connection, "education", cv.getId(), cv.getEducation(), stored.getEducation(),
+                Education::sameContent, this::insertEducation,
+                (c, cvId, rows) -> updateRows(c, "education", cvId, rows, EDUCATION_COLUMNS,
+                        DatabaseHandler::bindEducationField, false));
+        syncSection(connection, "experience", cv.getId(), cv.getExperience(), stored.getExperience(),
+                Experience::sameContent, this::insertExperience,
+                (c, cvId, rows) -> updateRows(c, "experience", cvId, rows, EXPERIENCE_COLUMNS,
+                        DatabaseHandler::bindExperienceField, false));
+        syncSection(connection, "skills", cv.getId(), cv.getSkills(), stored.getSkills(),
+                Skill::sameContent, this::insertSkills,
+                (c, cvId, rows) -> updateRows(c, "skills", cvId, rows, SKILL_COLUMNS,
+                        DatabaseHandler::bindSkillField, false));
+        syncSection(connection, "languages", cv.getId(), cv.getLanguages(), stored.getLanguages(),
+                Language::sameContent, this::insertLanguages,
+                (c, cvId, rows) -> updateRows(c, "languages", cvId, rows, LANGUAGE_COLUMNS,
+                        DatabaseHandler::bindLanguageField, false));
+    }
 
-            ResultSet resultSet = statement.executeQuery();
+    /**
+     * Writes only what the CV's change tracking recorded: removed rows are
+     * deleted, modified rows update just their changed columns and new rows
+     * are inserted. Untouched sections cost no statements.
+     */
+    private void applySectionChanges(Connection connection, CV cv) throws SQLException {
+        applyChanges(connection, "education", cv.getId(), cv.getEducationChanges(), EDUCATION_COLUMNS,
+                DatabaseHandler::bindEducationField, this::insertEducation);
+        applyChanges(connection, "experience", cv.getId(), cv.getExperienceChanges(), EXPERIENCE_COLUMNS,
+                DatabaseHandler::bindExperienceField, this::insertExperience);
+        applyChanges(connection, "skills", cv.getId(), cv.getSkillChanges(), SKILL_COLUMNS,
+                DatabaseHandler::bindSkillField, this::insertSkills);
+        applyChanges(connection, "languages", cv.getId(), cv.getLanguageChanges(), LANGUAGE_COLUMNS,
+                DatabaseHandler::bindLanguageField, this::insertLanguages);
+    }
 
-            while (resultSet.next()) {
-                Education education = new Education();
-                education.setId(resultSet.getInt("id"));
-                education.setCvId(resultSet.getInt("cv_id"));
-                education.setInstitution(resultSet.getString("institution"));
-                education.setDegree(resultSet.getString("degree"));
-                education.setFieldOfStudy(resultSet.getString("field_of_study"));
-                Date sqlDate = resultSet.getDate("start_date");
-                education.setStartDate(sqlDate != null ? sqlDate.toLocalDate() : null);
-                sqlDate = resultSet.getDate("end_date");
-                education.setEndDate(sqlDate != null ? sqlDate.toLocalDate() : null);
-                education.setDescription(resultSet.getString("description"));
-
-                cv.addEducation(education);
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
+    private <T extends Tracked> void applyChanges(Connection connection, String table, int cvId,
+                                                  SectionChanges<T> changes, String[] columns,
+                                                  FieldBinder<T> binder, SectionWriter<T> inserter)
+            throws SQLException {
+        if (changes.isEmpty()) {
+            return;
         }
+        deleteByIds(connection, table, cvId, changes.getRemovedIds());
+        updateRows(connection, table, cvId, changes.getModified(), columns, binder, true);
+        inserter.write(connection, cvId, new ArrayList<>(changes.getAdded()));
     }
 
-    private void loadExperience(CV cv) {
-        String query = "SELECT * FROM experience WHERE cv_id = ?";
+    private interface SectionWriter<T> {
+        void write(Connection connection, int cvId, List<T> rows) throws SQLException;
+    }
 
-        try (PreparedStatement statement = connection.prepareStatement(query)) {
-            statement.setInt(1, cv.getId());
+    private <T extends Tracked> void syncSection(Connection connection, String table, int cvId,
+                                                 List<T> incoming, List<T> stored, BiPredicate<T, T> sameContent,
+                                                 SectionWriter<T> inserter, SectionWriter<T> updater)
+            throws SQLException {
+        Map<Integer, T> storedById = new HashMap<>();
+        for (T row : stored) {
+            storedById.put(row.getId(), row);
+        }
 
-            ResultSet resultSet = statement.executeQuery();
+        List<T> toInsert = new ArrayList<>();
+        List<T> toUpdate = new ArrayList<>();
+        List<T> unmatched = new ArrayList<>();
+        for (T row : incoming) {
+            T storedRow = storedById.remove(row.getId());
+            if (storedRow == null) {
+                unmatched.add(row);
+            } else if (!sameContent.test(row, storedRow)) {
+                toUpdate.add(row);
+            }
+        }
 
-            while (resultSet.next()) {
-                Experience experience = new Experience();
-                experience.setId(resultSet.getInt("id"));
-                experience.setCvId(resultSet.getInt("cv_id"));
-                experience.setCompany(resultSet.getString("company"));
-                experience.setPosition(resultSet.getString("position"));
-                experience.setLocation(resultSet.getString("location"));
-                Date sqlDate = resultSet.getDate("start_date");
-                experience.setStartDate(sqlDate != null ? sqlDate.toLocalDate() : null);
-                sqlDate = resultSet.getDate("end_date");
-                experience.setEndDate(sqlDate != null ? sqlDate.toLocalDate() : null);
-                experience.setDescription(resultSet.getString("description"));
-
-                cv.addExperience(experience);
+        // Rows without a known id that equal a leftover stored row adopt its id, which
+        // makes replaying the same snapshot (e.g. from the edit journal) idempotent
+        for (T row : unmatched) {
+            T adopted = null;
+            for (T storedRow : storedById.values()) {
+                if (sameContent.test(row, storedRow)) {
+                    adopted = storedRow;
+                    break;
+                }
+            }
+            if (adopted != null) {
+                storedById.remove(adopted.getId());
+                row.setId(adopted.getId());
+                row.setCvId(cvId);
+            } else {
+                toInsert.add(row);
             }
-        } catch (SQLException e) {
-            e.printStackTrace();
         }
+
+        // Whatever is left was removed in the editor
+        deleteByIds(connection, table, cvId, storedById.keySet());
+        updater.write(connection, cvId, toUpdate);
+        inserter.write(connection, cvId, toInsert);
     }
 
-    private void loadSkills(CV cv) {
-        String query = "SELECT * FROM skills WHERE cv_id = ?";
+    private void deleteByIds(Connection connection, String table, int cvId, Collection<Integer> ids) throws SQLException {
+        if (ids.isEmpty()) {
+            return;
+        }
+        String delete = "DELETE FROM " + table + " WHERE cv_id = ? AND id = ANY(?)";
 
-        try (PreparedStatement statement = connection.prepareStatement(query)) {
-            statement.setInt(1, cv.getId());
+        try (PreparedStatement statement = connection.prepareStatement(delete)) {
+            Array idArray = connection.createArrayOf("integer", ids.toArray());
+            statement.setInt(1, cvId);
+            statement.setArray(2, idArray);
+            statement.executeUpdate();
+            idArray.free();
+        }
+    }
 
-            ResultSet resultSet = statement.executeQuery();
+    private interface FieldBinder<T> {
+        void bind(PreparedStatement statement, int index, T row, int field) throws SQLException;
+    }
 
-            while (resultSet.next()) {
-                Skill skill = new Skill();
-                skill.setId(resultSet.getInt("id"));
-                skill.setCvId(resultSet.getInt("cv_id"));
-                skill.setName(resultSet.getString("name"));
-                skill.setLevel(resultSet.getInt("level"));
+    /**
+     * Batch-updates the given rows. Rows changing the same set of columns share
+     * one prepared statement; with {@code changedColumnsOnly} false every column
+     * is written.
+     */
+    private <T extends Tracked> void updateRows(Connection connection, String table, int cvId, List<T> rows,
+                                                String[] columns, FieldBinder<T> binder,
+                                                boolean changedColumnsOnly) throws SQLException {
+        Map<Integer, List<T>> rowsByFields = new LinkedHashMap<>();
+        for (T row : rows) {
+            int fields = changedColumnsOnly ? row.getDirtyFields() : allFields(columns);
+            rowsByFields.computeIfAbsent(fields, k -> new ArrayList<>()).add(row);
+        }
 
-                cv.addSkill(skill);
+        for (Map.Entry<Integer, List<T>> entry : rowsByFields.entrySet()) {
+            int fields = entry.getKey();
+            String update = "UPDATE " + table + " SET " + setClause(columns, fields, null) +
+                           " WHERE id = ? AND cv_id = ?";
+
+            try (PreparedStatement statement = connection.prepareStatement(update)) {
+                for (T row : entry.getValue()) {
+                    int index = bindFields(statement, 1, row, fields, columns, binder);
+                    statement.setInt(index, row.getId());
+                    statement.setInt(index + 1, cvId);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
             }
-        } catch (SQLException e) {
-            e.printStackTrace();
         }
     }
 
-    private void loadLanguages(CV cv) {
-        String query = "SELECT * FROM languages WHERE cv_id = ?";
-
-        try (PreparedStatement statement = connection.prepareStatement(query)) {
-            statement.setInt(1, cv.getId());
-
-            ResultSet resultSet = statement.executeQuery();
+    private static int allFields(String[] columns) {
+        return (1 << columns.length) - 1;
+    }
 
-            while (resultSet.next()) {
-                Language language = new Language();
-                language.setId(resultSet.getInt("id"));
-                language.setCvId(resultSet.getInt("cv_id"));
-                language.setName(resultSet.getString("name"));
-                language.setProficiency(resultSet.getString("proficiency"));
+    private static String setClause(String[] columns, int fields, String extra) {
+        StringBuilder clause = new StringBuilder();
+        for (int i = 0; i < columns.length; i++) {
+            if ((fields & (1 << i)) != 0) {
+                if (clause.length() > 0) {
+                    clause.append(", ");
+                }
+                clause.append(columns[i]).append(" = ?");
+            }
+        }
+        if (extra != null) {
+            clause.append(clause.length() > 0 ? ", " : "").append(extra);
+        }
+        return clause.toString();
+    }
 
-                cv.addLanguage(language);
+    private static <T> int bindFields(PreparedStatement statement, int index, T row, int fields,
+                                      String[] columns, FieldBinder<T> binder) throws SQLException {
+        for (int i = 0; i < columns.length; i++) {
+            if ((fields & (1 << i)) != 0) {
+                binder.bind(statement, index++, row, 1 << i);
             }
-        } catch (SQLException e) {
-            e.printStackTrace();
         }
+        return index;
     }
 
-    private void deleteEducationByCvId(int cvId) {
-        String delete = "DELETE FROM education WHERE cv_id = ?";
+    private static void bindCVField(PreparedStatement statement, int index, CV cv, int field) throws SQLException {
+        switch (field) {
+            case CV.TITLE: statement.setString(index, cv.getTitle()); break;
+            case CV.FULL_NAME: statement.setString(index, cv.getFullName()); break;
+            case CV.EMAIL: statement.setString(index, cv.getEmail()); break;
+            case CV.PHONE: statement.setString(index, cv.getPhone()); break;
+            case CV.ADDRESS: statement.setString(index, cv.getAddress()); break;
+            case CV.SUMMARY: statement.setString(index, cv.getSummary()); break;
+            default: throw new IllegalArgumentException("Unknown CV field " + field);
+        }
+    }
 
-        try (PreparedStatement statement = connection.prepareStatement(delete)) {
-            statement.setInt(1, cvId);
-            statement.executeUpdate();
-        } catch (SQLException e) {
-            e.printStackTrace();
+    private static void bindEducationField(PreparedStatement statement, int index, Education education, int field)
+            throws SQLException {
+        switch (field) {
+            case Education.INSTITUTION: statement.setString(index, education.getInstitution()); break;
+            case Education.DEGREE: statement.setString(index, education.getDegree()); break;
+            case Education.FIELD_OF_STUDY: statement.setString(index, education.getFieldOfStudy()); break;
+            case Education.START_DATE: statement.setDate(index, toSqlDate(education.getStartDate())); break;
+            case Education.END_DATE: statement.setDate(index, toSqlDate(education.getEndDate())); break;
+            case Education.DESCRIPTION: statement.setString(index, education.getDescription()); break;
+            default: throw new IllegalArgumentException("Unknown education field " + field);
         }
     }
 
-    private void deleteExperienceByCvId(int cvId) {
-        String delete = "DELETE FROM experience WHERE cv_id = ?";
+    private static void bindExperienceField(PreparedStatement statement, int index, Experience experience, int field)
+            throws SQLException {
+        switch (field) {
+            case Experience.COMPANY: statement.setString(index, experience.getCompany()); break;
+            case Experience.POSITION: statement.setString(index, experience.getPosition()); break;
+            case Experience.LOCATION: statement.setString(index, experience.getLocation()); break;
+            case Experience.START_DATE: statement.setDate(index, toSqlDate(experience.getStartDate())); break;
+            case Experience.END_DATE: statement.setDate(index, toSqlDate(experience.getEndDate())); break;
+            case Experience.DESCRIPTION: statement.setString(index, experience.getDescription()); break;
+            default: throw new IllegalArgumentException("Unknown experience field " + field);
+        }
+    }
 
-        try (PreparedStatement statement = connection.prepareStatement(delete)) {
-            statement.setInt(1, cvId);
-            statement.executeUpdate();
-        } catch (SQLException e) {
-            e.printStackTrace();
+    private static void bindSkillField(PreparedStatement statement, int index, Skill skill, int field)
+            throws SQLException {
+        switch (field) {
+            case Skill.NAME: statement.setString(index, skill.getName()); break;
+            case Skill.LEVEL: statement.setInt(index, skill.getLevel()); break;
+            default: throw new IllegalArgumentException("Unknown skill field " + field);
         }
     }
 
-    private void deleteSkillsByCvId(int cvId) {
-        String delete = "DELETE FROM skills WHERE cv_id = ?";
+    private static void bindLanguageField(PreparedStatement statement, int index, Language language, int field)
+            throws SQLException {
+        switch (field) {
+            case Language.NAME: statement.setString(index, language.getName()); break;
+            case Language.PROFICIENCY: statement.setString(index, language.getProficiency()); break;
+            default: throw new IllegalArgumentException("Unknown language field " + field);
+        }
+    }
 
-        try (PreparedStatement statement = connection.prepareStatement(delete)) {
-            statement.setInt(1, cvId);
-            statement.executeUpdate();
-        } catch (SQLException e) {
-            e.printStackTrace();
+    private static Date toSqlDate(LocalDate date) {
+        return date != null ? Date.valueOf(date) : null;
+    }
+
+    /**
+     * Loads education, experience, skills and languages for every CV in the map
+     * with one query per child table, regardless of how many CVs there are.
+     */
+    private void loadSections(Connection connection, Map<Integer, CV> cvsById) throws SQLException {
+        if (cvsById.isEmpty()) {
+            return;
+        }
+
+        Array cvIds = connection.createArrayOf("integer", cvsById.keySet().toArray());
+        try {
+            forEachChildRow(connection, "education", cvIds, resultSet ->
+                    cvsById.get(resultSet.getInt("cv_id")).addEducation(mapEducation(resultSet)));
+            forEachChildRow(connection, "experience", cvIds, resultSet ->
+                    cvsById.get(resultSet.getInt("cv_id")).addExperience(mapExperience(resultSet)));
+            forEachChildRow(connection, "skills", cvIds, resultSet ->
+                    cvsById.get(resultSet.getInt("cv_id")).addSkill(mapSkill(resultSet)));
+            forEachChildRow(connection, "languages", cvIds, resultSet ->
+                    cvsById.get(resultSet.getInt("cv_id")).addLanguage(mapLanguage(resultSet)));
+        } finally {
+            cvIds.free();
         }
     }
 
-    private void deleteLanguagesByCvId(int cvId) {
-        String delete = "DELETE FROM languages WHERE cv_id = ?";
+    static String childRowsQuery(String table) {
+        return "SELECT * FROM " + table + " WHERE cv_id = ANY(?) ORDER BY cv_id, id";
+    }
 
-        try (PreparedStatement statement = connection.prepareStatement(delete)) {
-            statement.setInt(1, cvId);
-            statement.executeUpdate();
-        } catch (SQLException e) {
-            e.printStackTrace();
+    private interface RowHandler {
+        void handle(ResultSet resultSet) throws SQLException;
+    }
+
+    private void forEachChildRow(Connection connection, String table, Array cvIds, RowHandler handler)
+            throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(childRowsQuery(table))) {
+            statement.setArray(1, cvIds);
+
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    handler.handle(resultSet);
+                }
+            }
         }
     }
+
+    static Education mapEducation(ResultSet resultSet) throws SQLException {
+        Education education = new Education();
+        education.setId(resultSet.getInt("id"));
+        education.setCvId(resultSet.getInt("cv_id"));
+        education.setInstitution(resultSet.getString("institution"));
+        education.setDegree(resultSet.getString("degree"));
+        education.setFieldOfStudy(resultSet.getString("field_of_study"));
+        Date sqlDate = resultSet.getDate("start_date");
+        education.setStartDate(sqlDate != null ? sqlDate.toLocalDate() : null);
+        sqlDate = resultSet.getDate("end_date");
+        education.setEndDate(sqlDate != null ? sqlDate.toLocalDate() : null);
+        education.setDescription(resultSet.getString("description"));
+        return education;
+    }
+
+    static Experience mapExperience(ResultSet resultSet) throws SQLException {
+        Experience experience = new Experience();
+        experience.setId(resultSet.getInt("id"));
+        experience.setCvId(resultSet.getInt("cv_id"));
+        experience.setCompany(resultSet.getString("company"));
+        experience.setPosition(resultSet.getString("position"));
+        experience.setLocation(resultSet.getString("location"));
+        Date sqlDate = resultSet.getDate("start_date");
+        experience.setStartDate(sqlDate != null ? sqlDate.toLocalDate() : null);
+        sqlDate = resultSet.getDate("end_date");
+        experience.setEndDate(sqlDate != null ? sqlDate.toLocalDate() : null);
+        experience.setDescription(resultSet.getString("description"));
+        return experience;
+    }
+
+    static Skill mapSkill(ResultSet resultSet) throws SQLException {
+        Skill skill = new Skill();
+        skill.setId(resultSet.getInt("id"));
+        skill.setCvId(resultSet.getInt("cv_id"));
+        skill.setName(resultSet.getString("name"));
+        skill.setLevel(resultSet.getInt("level"));
+        return skill;
+    }
+
+    static Language mapLanguage(ResultSet resultSet) throws SQLException {
+        Language language = new Language();
+        language.setId(resultSet.getInt("id"));
+        language.setCvId(resultSet.getInt("cv_id"));
+        language.setName(resultSet.getString("name"));
+        language.setProficiency(resultSet.getString("proficiency"));
+        return language;
+    }
 }
@@ -0,0 +1,526 @@
+package components.CVBuilder.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.sql.SQLTransientException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+import components.CVBuilder.model.CV;
+
+/**
+ * Write-behind journal for editor saves.
+ *
+ * Each save of an existing CV is appended as one JSON line to a local file and
+ * acknowledged immediately; the file is fsync'ed at most once per second. A
+ * background flusher keeps only the latest snapshot per CV and writes them to
+ * the repository in one batch every few seconds. After a flush a marker
+ * line is appended, and the file is truncated once nothing is pending.
+ * Entries left unflushed by a crash are replayed when the user logs in again.
+ *
+ * Pending snapshots keep the CV's change tracking, and a newer save of the
+ * same CV is merged into the older one's changes, so a flush writes only the
+ * changed columns and rows. Snapshots whose write may or may not have landed
+ * (a transient failure, a flush racing a newer save) and snapshots replayed
+ * after a crash are untracked; they are written by comparing with the stored
+ * rows, which is safe to repeat.
+ */
+public class EditJournal implements AutoCloseable {
+    private static final long SYNC_INTERVAL_MILLIS = 1_000;
+    private static final long FLUSH_INTERVAL_MILLIS = 5_000;
+
+    /**
+     * Told about the outcome of journaled edits, on the flusher thread.
+     */
+    public interface Listener {
+        /**
+         * The edit reached the storage. {@code saved} carries the ids assigned
+         * to rows that were new; see {@link CV#adoptIds(CV)}.
+         */
+        default void flushed(CV saved) {
+        }
+
+        /**
+         * The edit was rejected by the storage (constraint violation, CV
+         * deleted, ...) and will not be retried. It was moved to
+         * {@code deadLetterFile} instead of being dropped.
+         */
+        default void flushFailed(CV snapshot, String reason, Path deadLetterFile) {
+        }
+    }
+
+    // One journal per user of the configured storage; guarded by the class
+    private static final Map<Integer, EditJournal> journals = new HashMap<>();
+    private static final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    // CVs being deleted right now; a flush that finds them gone is not a rejection
+    private static final Set<Integer> deletingIds = ConcurrentHashMap.newKeySet();
+
+    private final int userId;
+    private final Path file;
+    private final Path deadLetterFile;
+    private final FileChannel channel;
+    private final ScheduledExecutorService scheduler;
+    // Held for a whole flush, so the final flush of close() never overlaps a scheduled one
+    private final Object flushLock = new Object();
+
+    // Latest unflushed snapshot per CV id; guarded by this
+    private final Map<Integer, Entry> pending = new LinkedHashMap<>();
+    private long nextSeq = 1;
+    private boolean unsynced;
+
+    /**
+     * Returns the journal of the user's edits to the configured storage,
+     * opening it (and replaying what a previous run left unflushed) on first
+     * use. Each user and each target database has a file of its own, so edits
+     * are never replayed into another account or another database.
+     */
+    public static synchronized EditJournal forUser(int userId) throws IOException {
+        EditJournal journal = journals.get(userId);
+        if (journal == null) {
+            Path dir = Paths.get(System.getProperty("user.home"), ".cvbuilder");
+            journal = new EditJournal(userId, dir.resolve("edit-journal-" + storageKey() + "-" + userId + ".log"));
+            journals.put(userId, journal);
+        }
+        return journal;
+    }
+
+    public static void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public static void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Flushes and closes every open journal.
+     */
+    public static void closeAll() throws IOException {
+        List<EditJournal> open;
+        synchronized (EditJournal.class) {
+            open = new ArrayList<>(journals.values());
+            journals.clear();
+        }
+        IOException failure = null;
+        for (EditJournal journal : open) {
+            try {
+                journal.close();
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Runs the deletion of the CVs and then drops their pending edits, which
+     * have nowhere to go. A flush that meanwhile finds one of them gone counts
+     * its edit as done instead of reporting it as rejected.
+     */
+    public static <T> T deleting(Collection<Integer> cvIds, Callable<T> delete) throws Exception {
+        deletingIds.addAll(cvIds);
+        try {
+            T result = delete.call();
+            List<EditJournal> open;
+            synchronized (EditJournal.class) {
+                open = new ArrayList<>(journals.values());
+            }
+            for (EditJournal journal : open) {
+                journal.discard(cvIds);
+            }
+            return result;
+        } finally {
+            deletingIds.removeAll(cvIds);
+        }
+    }
+
+    // Short, stable name for the storage the journal flushes to (backend and database)
+    private static String storageKey() {
+        String backend = DatabaseConfig.getBackend();
+        String target = DatabaseConfig.BACKEND_LOCAL.equals(backend)
+                ? DatabaseConfig.get("db.local.path", "")
+                : String.valueOf(DatabaseConfig.getUrl());
+        CRC32 crc = new CRC32();
+        crc.update((backend + "|" + target).getBytes(StandardCharsets.UTF_8));
+        return String.format("%08x", crc.getValue());
+    }
+
+    EditJournal(int userId, Path file) throws IOException {
+        this.userId = userId;
+        this.file = file;
+        this.deadLetterFile = file.resolveSibling(file.getFileName() + ".failed");
+        Files.createDirectories(file.getParent());
+        replay();
+
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        channel.position(channel.size());
+
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "edit-journal");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::syncQuietly,
+                SYNC_INTERVAL_MILLIS, SYNC_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        // Replayed entries go out on the first flush
+        scheduler.scheduleWithFixedDelay(this::flush, 0, FLUSH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Appends a snapshot of an already persisted CV. New CVs must be created
+     * through the database first so they have an id.
+     */
+    public void record(CV cv) throws IOException {
+        if (cv.getId() <= 0) {
+            throw new IllegalArgumentException("Only saved CVs can be journaled");
+        }
+        if (cv.getUserId() != userId) {
+            throw new IllegalArgumentException("CV " + cv.getId() + " belongs to another user's journal");
+        }
+        String json = CVJson.toJson(cv);
+        CV snapshot = cv.copy();
+
+        synchronized (this) {
+            long seq = nextSeq++;
+            append("{\"seq\":" + seq + ",\"cv\":" + json + "}\n");
+            // The caller marks its CV clean after this, so the unflushed changes must be kept
+            Entry previous = pending.get(cv.getId());
+            if (previous != null) {
+                snapshot.mergeChanges(previous.cv);
+            }
+            pending.put(cv.getId(), new Entry(seq, snapshot));
+        }
+    }
+
+    /**
+     * Returns a copy of the newest unflushed snapshot of the CV, or null if the
+     * database is up to date. The copy is untracked: its rows may get their ids
+     * from a flush it never hears of, so it is saved by comparing with the
+     * stored rows.
+     */
+    public synchronized CV getPending(int cvId) {
+        Entry entry = pending.get(cvId);
+        if (entry == null) {
+            return null;
+        }
+        CV copy = entry.cv.copy();
+        copy.markDirty();
+        return copy;
+    }
+
+    public synchronized int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Writes all pending snapshots to the database. Transient failures leave
+     * them pending for the next attempt; snapshots the storage rejects are
+     * moved to the dead-letter file and reported to the listeners. Only one
+     * flush runs at a time.
+     */
+    public void flush() {
+        synchronized (flushLock) {
+            flushPending();
+        }
+    }
+
+    private void flushPending() {
+        Map<Integer, Entry> batch;
+        List<CV> cvs = new ArrayList<>();
+        synchronized (this) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = new LinkedHashMap<>(pending);
+            for (Entry entry : batch.values()) {
+                cvs.add(entry.cv.copy());
+            }
+        }
+
+        try {
+            if (Repositories.get().updateCVs(cvs) == cvs.size()) {
+                markFlushed(batch);
+                for (CV saved : cvs) {
+                    fireFlushed(saved);
+                }
+                return;
+            }
+            // Some of the CVs no longer exist; find out which
+        } catch (SQLException e) {
+            if (isTransient(e)) {
+                System.err.println("Edit journal flush deferred: " + e.getMessage());
+                untrack(batch.keySet());
+                return;
+            }
+            // One bad snapshot must not block the rest; retry them one by one
+        } catch (RuntimeException | LinkageError e) {
+            // Database not configured or not reachable yet
+            System.err.println("Edit journal flush deferred: " + e.getMessage());
+            untrack(batch.keySet());
+            return;
+        }
+        flushIndividually(batch);
+    }
+
+    @Override
+    public void close() throws IOException {
+        // No new scheduled flushes; one already running finishes before the final flush starts
+        scheduler.shutdown();
+        flush();
+        synchronized (this) {
+            channel.force(false);
+            channel.close();
+        }
+    }
+
+    private void flushIndividually(Map<Integer, Entry> batch) {
+        Map<Integer, Entry> done = new HashMap<>();
+        List<CV> saved = new ArrayList<>();
+        for (Map.Entry<Integer, Entry> item : batch.entrySet()) {
+            String failure;
+            try {
+                CV cv;
+                synchronized (this) {
+                    cv = item.getValue().cv.copy();
+                }
+                if (Repositories.get().updateCV(cv)) {
+                    done.put(item.getKey(), item.getValue());
+                    saved.add(cv);
+                    continue;
+                }
+                if (wasDeleted(item.getKey())) {
+                    done.put(item.getKey(), item.getValue());
+                    continue;
+                }
+                failure = "CV " + item.getKey() + " no longer exists";
+            } catch (SQLException e) {
+                if (isTransient(e)) {
+                    untrack(List.of(item.getKey()));
+                    continue;
+                }
+                failure = String.valueOf(e.getMessage());
+            } catch (RuntimeException e) {
+                System.err.println("Edit journal flush deferred: " + e.getMessage());
+                untrack(List.of(item.getKey()));
+                break;
+            }
+
+            if (deadLetter(item.getValue(), failure)) {
+                done.put(item.getKey(), item.getValue());
+            }
+        }
+        markFlushed(done);
+        for (CV cv : saved) {
+            fireFlushed(cv);
+        }
+    }
+
+    private static void fireFlushed(CV saved) {
+        for (Listener listener : listeners) {
+            try {
+                listener.flushed(saved);
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    // Keeps a rejected edit where the user can still recover it; on failure it stays pending
+    private boolean deadLetter(Entry entry, String reason) {
+        StringBuilder line = new StringBuilder(512);
+        try {
+            line.append("{\"seq\":").append(entry.seq).append(",\"error\":");
+            CVJson.quote(line, reason);
+            line.append(",\"cv\":");
+            CVJson.write(entry.cv, line);
+            line.append("}\n");
+            Files.write(deadLetterFile, line.toString().getBytes(StandardCharsets.UTF_8),
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.SYNC);
+        } catch (IOException e) {
+            System.err.println("Could not set aside rejected edit of CV " + entry.cv.getId()
+                    + ", keeping it in the journal: " + e.getMessage());
+            return false;
+        }
+
+        System.err.println("Journaled edit of CV " + entry.cv.getId() + " rejected (" + reason
+                + "); moved to " + deadLetterFile);
+        for (Listener listener : listeners) {
+            try {
+                listener.flushFailed(entry.cv.copy(), reason, deadLetterFile);
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+        }
+        return true;
+    }
+
+    private synchronized void markFlushed(Map<Integer, Entry> flushed) {
+        try {
+            for (Map.Entry<Integer, Entry> item : flushed.entrySet()) {
+                Entry current = pending.get(item.getKey());
+                // A newer save may have arrived while flushing; its baseline predates this write
+                if (current != null && current.seq == item.getValue().seq) {
+                    pending.remove(item.getKey());
+                } else if (current != null) {
+                    current.cv.markDirty();
+                }
+                append("{\"flushed\":" + item.getKey() + ",\"seq\":" + item.getValue().seq + "}\n");
+            }
+
+            if (pending.isEmpty()) {
+                channel.truncate(0);
+                channel.position(0);
+                unsynced = true;
+            }
+            sync();
+        } catch (IOException e) {
+            System.err.println("Edit journal bookkeeping failed: " + e.getMessage());
+        }
+    }
+
+    // Deleted through deleting(), either still running or already discarded from pending
+    private synchronized boolean wasDeleted(int cvId) {
+        return deletingIds.contains(cvId) || !pending.containsKey(cvId);
+    }
+
+    private synchronized void discard(Collection<Integer> cvIds) {
+        boolean discarded = false;
+        try {
+            for (Integer cvId : cvIds) {
+                Entry entry = pending.remove(cvId);
+                if (entry != null) {
+                    append("{\"flushed\":" + cvId + ",\"seq\":" + entry.seq + "}\n");
+                    discarded = true;
+                }
+            }
+            if (discarded && pending.isEmpty()) {
+                channel.truncate(0);
+                channel.position(0);
+                unsynced = true;
+            }
+            sync();
+        } catch (IOException e) {
+            System.err.println("Edit journal bookkeeping failed: " + e.getMessage());
+        }
+    }
+
+    // The write may have landed; retrying the tracked changes could insert new rows twice
+    private synchronized void untrack(Collection<Integer> cvIds) {
+        for (Integer cvId : cvIds) {
+            Entry current = pending.get(cvId);
+            if (current != null) {
+                current.cv.markDirty();
+            }
+        }
+    }
+
+    private void append(String line) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(line.getBytes(StandardCharsets.UTF_8));
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        unsynced = true;
+    }
+
+    private synchronized void sync() throws IOException {
+        if (unsynced && channel.isOpen()) {
+            channel.force(false);
+            unsynced = false;
+        }
+    }
+
+    private void syncQuietly() {
+        try {
+            sync();
+        } catch (IOException e) {
+            System.err.println("Edit journal fsync failed: " + e.getMessage());
+        }
+    }
+
+    private void replay() throws IOException {
+        if (!Files.exists(file)) {
+            return;
+        }
+
+        Map<Integer, Long> flushedSeq = new HashMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                try {
+                    readLine(line, flushedSeq);
+                } catch (IOException | RuntimeException e) {
+                    // Torn write from a crash; everything before it is intact
+                    System.err.println("Skipping unreadable journal line: " + e.getMessage());
+                }
+            }
+        }
+
+        pending.values().removeIf(entry -> entry.seq <= flushedSeq.getOrDefault(entry.cv.getId(), 0L));
+        if (!pending.isEmpty()) {
+            System.out.println("Recovered " + pending.size() + " unsaved CV edit(s) from " + file);
+        }
+    }
+
+    private void readLine(String line, Map<Integer, Long> flushedSeq) throws IOException {
+        JsonReader json = new JsonReader(new StringReader(line));
+        long seq = 0;
+        Integer flushedId = null;
+        CV cv = null;
+
+        json.beginObject();
+        while (json.hasNext()) {
+            switch (json.nextName()) {
+                case "seq": seq = json.nextLong(); break;
+                case "flushed": flushedId = json.nextInt(); break;
+                case "cv": cv = CVJson.read(json); break;
+                default: json.skipValue();
+            }
+        }
+        json.endObject();
+
+        nextSeq = Math.max(nextSeq, seq + 1);
+        if (flushedId != null) {
+            flushedSeq.merge(flushedId, seq, Math::max);
+        } else if (cv != null && cv.getUserId() == userId) {
+            pending.put(cv.getId(), new Entry(seq, cv));
+        }
+    }
+
+    private static boolean isTransient(SQLException e) {
+        String sqlState = e.getSQLState();
+        return e instanceof SQLTransientException || (sqlState != null && sqlState.startsWith("08"));
+    }
+
+    private static final class Entry {
+        final long seq;
+        final CV cv;
+
+        Entry(long seq, CV cv) {
+            this.seq = seq;
+            this.cv = cv;
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package components.CVBuilder.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayDeque;
+
+/**
+ * Minimal pull parser for JSON text. Values are consumed one token at a time
+ * straight from the underlying reader, so large documents never need to be
+ * buffered in full.
+ */
+public class JsonReader {
+    public enum Token {
+        BEGIN_OBJECT, END_OBJECT, BEGIN_ARRAY, END_ARRAY, NAME, STRING, NUMBER, BOOLEAN, NULL, END_DOCUMENT
+    }
+
+    private final Reader in;
+    private final StringBuilder buffer = new StringBuilder();
+    private int peekedChar = -2;
+    private Token peeked;
+    // Open containers (true = object) and whether the next string is a member name
+    private final ArrayDeque<Boolean> inObject = new ArrayDeque<>();
+    private boolean expectName;
+
+    public JsonReader(Reader in) {
+        this.in = in;
+    }
+
+    public Token peek() throws IOException {
+        if (peeked == null) {
+            peeked = readToken();
+        }
+        return peeked;
+    }
+
+    public boolean hasNext() throws IOException {
+        Token token = peek();
+        return token != Token.END_OBJECT && token != Token.END_ARRAY && token != Token.END_DOCUMENT;
+    }
+
+    public void beginObject() throws IOException {
+        expect(Token.BEGIN_OBJECT);
+    }
+
+    public void endObject() throws IOException {
+        expect(Token.END_OBJECT);
+    }
+
+    public void beginArray() throws IOException {
+        expect(Token.BEGIN_ARRAY);
+    }
+
+    public void endArray() throws IOException {
+        expect(Token.END_ARRAY);
+    }
+
+    public String nextName() throws IOException {
+        expect(Token.NAME);
+        return buffer.toString();
+    }
+
+    /**
+     * Returns the next string value, or null for a JSON null.
+     */
+    public String nextString() throws IOException {
+        Token token = peek();
+        if (token == Token.NULL) {
+            peeked = null;
+            return null;
+        }
+        if (token != Token.STRING && token != Token.NUMBER && token != Token.BOOLEAN) {
+            throw syntaxError("Expected a string but was " + token);
+        }
+        peeked = null;
+        return buffer.toString();
+    }
+
+    public int nextInt() throws IOException {
+        String value = nextString();
+        if (value == null) {
+            return 0;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            return (int) Double.parseDouble(value);
+        }
+    }
+
+    public long nextLong() throws IOException {
+        String value = nextString();
+        return value != null ? Long.parseLong(value) : 0;
+    }
+
+    public boolean nextBoolean() throws IOException {
+        expect(Token.BOOLEAN);
+        return Boolean.parseBoolean(buffer.toString());
+    }
+
+    public void skipValue() throws IOException {
+        int depth = 0;
+        do {
+            Token token = peek();
+            peeked = null;
+            if (token == Token.BEGIN_OBJECT || token == Token.BEGIN_ARRAY) {
+                depth++;
+            } else if (token == Token.END_OBJECT || token == Token.END_ARRAY) {
+                depth--;
+            } else if (token == Token.END_DOCUMENT) {
+                throw syntaxError("Unexpected end of document");
+            }
+        } while (depth > 0);
+    }
+
+    private void expect(Token expected) throws IOException {
+        Token token = peek();
+        if (token != expected) {
+            throw syntaxError("Expected " + expected + " but was " + token);
+        }
+        peeked = null;
+    }
+
+    private Token readToken() throws IOException {
+        int c = nextNonSeparator();
+        switch (c) {
+            case -1:
+                return Token.END_DOCUMENT;
+            case '{':
+                inObject.push(true);
+                expectName = true;
+                return Token.BEGIN_OBJECT;
+            case '[':
+                inObject.push(false);
+                expectName = false;
+                return Token.BEGIN_ARRAY;
+            case '}':
+            case ']':
+                inObject.pop();
+                afterValue();
+                return c == '}' ? Token.END_OBJECT : Token.END_ARRAY;
+            case '"':
+                readString();
+                if (expectName) {
+                    expectName = false;
+                    return Token.NAME;
+                }
+                afterValue();
+                return Token.STRING;
+            default:
+                readLiteral(c);
+                afterValue();
+                String literal = buffer.toString();
+                if (literal.equals("null")) {
+                    return Token.NULL;
+                }
+                if (literal.equals("true") || literal.equals("false")) {
+                    return Token.BOOLEAN;
+                }
+                if (literal.isEmpty() || !(Character.isDigit(literal.charAt(0)) || literal.charAt(0) == '-')) {
+                    throw syntaxError("Unexpected character '" + literal + "'");
+                }
+                return Token.NUMBER;
+        }
+    }
+
+    private void afterValue() {
+        // Inside an object a value is always followed by the next member name
+        Boolean object = inObject.peek();
+        expectName = object != null && object;
+    }
+
+    private int nextNonSeparator() throws IOException {
+        int c;
+        do {
+            c = read();
+        } while (c == ' ' || c == '\t' || c == '\n' || c == '\r' || c == ',' || c == ':');
+        return c;
+    }
+
+    private void readString() throws IOException {
+        buffer.setLength(0);
+        while (true) {
+            int c = read();
+            if (c == -1) {
+                throw syntaxError("Unterminated string");
+            }
+            if (c == '"') {
+                return;
+            }
+            if (c == '\\') {
+                c = read();
+                switch (c) {
+                    case 'n': buffer.append('\n'); break;
+                    case 't': buffer.append('\t'); break;
+                    case 'r': buffer.append('\r'); break;
+                    case 'b': buffer.append('\b'); break;
+                    case 'f': buffer.append('\f'); break;
+                    case 'u':
+                        char[] hex = new char[4];
+                        for (int i = 0; i < 4; i++) {
+                            hex[i] = (char) read();
+                        }
+                        buffer.append((char) Integer.parseInt(new String(hex), 16));
+                        break;
+                    case -1:
+                        throw syntaxError("Unterminated escape");
+                    default:
+                        buffer.append((char) c);
+                }
+            } else {
+                buffer.append((char) c);
+            }
+        }
+    }
+
+    private void readLiteral(int first) throws IOException {
+        buffer.setLength(0);
+        int c = first;
+        while (c != -1 && c != ',' && c != '}' && c != ']' && c != ':'
+                && c != ' ' && c != '\t' && c != '\n' && c != '\r') {
+            buffer.append((char) c);
+            c = read();
+        }
+        peekedChar = c;
+    }
+
+    private int read() throws IOException {
+        if (peekedChar != -2) {
+            int c = peekedChar;
+            peekedChar = -2;
+            return c;
+        }
+        return in.read();
+    }
+
+    private IOException syntaxError(String message) {
+        return new IOException("Malformed JSON: " + message);
+    }
+}
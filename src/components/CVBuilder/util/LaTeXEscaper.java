@@ -0,0 +1,92 @@
+package components.CVBuilder.util;
+
+/**
+ * Escapes text for use in LaTeX documents. Covers all ten TeX special
+ * characters: {@code \ { } & % $ # _ ~ ^}.
+ *
+ * The input is scanned once against a lookup table. Text without special
+ * characters, which is the common case, is returned as is without copying;
+ * otherwise the result is built in a single {@link StringBuilder}.
+ */
+public final class LaTeXEscaper {
+    // Replacement per ASCII character, null where the character is safe
+    private static final String[] REPLACEMENTS = new String[128];
+
+    static {
+        REPLACEMENTS['\\'] = "\\textbackslash{}";
+        REPLACEMENTS['{'] = "\\{";
+        REPLACEMENTS['}'] = "\\}";
+        REPLACEMENTS['&'] = "\\&";
+        REPLACEMENTS['%'] = "\\%";
+        REPLACEMENTS['$'] = "\\$";
+        REPLACEMENTS['#'] = "\\#";
+        REPLACEMENTS['_'] = "\\_";
+        REPLACEMENTS['~'] = "\\textasciitilde{}";
+        REPLACEMENTS['^'] = "\\textasciicircum{}";
+    }
+
+    private LaTeXEscaper() {
+    }
+
+    /**
+     * Returns the escaped text, the input itself if nothing needs escaping,
+     * or an empty string for null.
+     */
+    public static String escape(String input) {
+        if (input == null) {
+            return "";
+        }
+
+        int first = firstSpecial(input);
+        if (first < 0) {
+            return input;
+        }
+
+        StringBuilder out = new StringBuilder(input.length() + 16);
+        out.append(input, 0, first);
+        appendEscaped(input, first, out);
+        return out.toString();
+    }
+
+    /**
+     * Appends the escaped text to {@code out}, e.g. a builder reused across
+     * fields. Null appends nothing.
+     */
+    public static StringBuilder escape(CharSequence input, StringBuilder out) {
+        if (input == null) {
+            return out;
+        }
+
+        int first = firstSpecial(input);
+        if (first < 0) {
+            return out.append(input);
+        }
+        out.append(input, 0, first);
+        appendEscaped(input, first, out);
+        return out;
+    }
+
+    private static int firstSpecial(CharSequence input) {
+        for (int i = 0, length = input.length(); i < length; i++) {
+            char c = input.charAt(i);
+            if (c < 128 && REPLACEMENTS[c] != null) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // Escapes input[from..] into out; copies safe runs in one append each
+    private static void appendEscaped(CharSequence input, int from, StringBuilder out) {
+        int runStart = from;
+        for (int i = from, length = input.length(); i < length; i++) {
+            char c = input.charAt(i);
+            String replacement = c < 128 ? REPLACEMENTS[c] : null;
+            if (replacement != null) {
+                out.append(input, runStart, i).append(replacement);
+                runStart = i + 1;
+            }
+        }
+        out.append(input, runStart, input.length());
+    }
+}
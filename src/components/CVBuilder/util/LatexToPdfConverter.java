@@ -1,45 +1,123 @@
 package components.CVBuilder.util;
 
 import java.io.BufferedReader;
-import java.io.File;
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import freemarker.template.TemplateException;
 
 public class LatexToPdfConverter {
-    public static void convertLatexToPdf(String texPath, String pdfOutputPath)
-            throws IOException, InterruptedException {
 
-        File texFile = new File(texPath);
-        File outputDir = texFile.getParentFile();
+    /**
+     * Produces LaTeX source. It is streamed into xelatex while it is written,
+     * so no .tex file is ever stored.
+     */
+    public interface LatexSource {
+        void writeTo(Writer out) throws IOException, TemplateException;
+    }
+
+    /**
+     * Directory under which xelatex writes its output: {@code /dev/shm}
+     * (tmpfs) where available so rendering stays in memory, otherwise
+     * {@code java.io.tmpdir}. {@code -Dcvbuilder.render.dir} overrides both.
+     */
+    public static Path getScratchRoot() {
+        String dir = System.getProperty("cvbuilder.render.dir");
+        if (dir != null && !dir.trim().isEmpty()) {
+            return Paths.get(dir.trim());
+        }
+        Path shm = Paths.get("/dev/shm");
+        if (Files.isDirectory(shm) && Files.isWritable(shm)) {
+            return shm;
+        }
+        return Paths.get(System.getProperty("java.io.tmpdir"));
+    }
+
+    /**
+     * Runs xelatex on the source, fed through its standard input, and returns
+     * {@code <outputDir>/<jobName>.pdf}. The .aux and .log files are left in
+     * {@code outputDir} as well.
+     */
+    public static Path renderPdf(LatexSource source, Path outputDir, String jobName)
+            throws IOException, InterruptedException, TemplateException {
+        Files.createDirectories(outputDir);
 
+        // Scroll mode lets TeX read the document from the terminal, i.e. our pipe;
+        // halting on the first error keeps an error prompt from reading document lines
         ProcessBuilder pb = new ProcessBuilder(
             "xelatex",
-            "-interaction=nonstopmode",
-            "-output-directory=" + outputDir.getAbsolutePath(),
-            texFile.getName()
+            "-interaction=scrollmode",
+            "-halt-on-error",
+            "-jobname=" + jobName,
+            "-output-directory=" + outputDir.toAbsolutePath()
         );
 
-        pb.directory(outputDir);
+        pb.directory(outputDir.toFile());
         pb.redirectErrorStream(true);
 
         Process process = pb.start();
 
-        try (BufferedReader reader = new BufferedReader(
-            new InputStreamReader(process.getInputStream()))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                System.out.println("[XeLaTeX] " + line);
-            }
+        // Drained concurrently: xelatex blocks once its output pipe is full
+        Thread output = new Thread(() -> log(process.getInputStream()), "xelatex-output");
+        output.setDaemon(true);
+        output.start();
+
+        IOException writeFailure = null;
+        try (Writer writer = new BufferedWriter(
+                new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8))) {
+            source.writeTo(writer);
+        } catch (IOException e) {
+            // Usually xelatex stopped reading early; its exit code tells why
+            writeFailure = e;
+        } catch (TemplateException | RuntimeException e) {
+            process.destroyForcibly();
+            throw e;
+        }
+
+        int exitCode;
+        try {
+            exitCode = process.waitFor();
+            output.join();
+        } catch (InterruptedException e) {
+            process.destroyForcibly();
+            throw e;
         }
 
-        int exitCode = process.waitFor();
         if (exitCode != 0) {
-            throw new IOException("xelatex failed (exit code " + exitCode + ")");
+            IOException failure = new IOException("xelatex failed (exit code " + exitCode + ")");
+            if (writeFailure != null) {
+                failure.addSuppressed(writeFailure);
+            }
+            throw failure;
+        }
+        if (writeFailure != null) {
+            throw writeFailure;
+        }
+
+        Path pdf = outputDir.resolve(jobName + ".pdf");
+        if (!Files.isRegularFile(pdf)) {
+            throw new IOException("xelatex produced no PDF: " + pdf);
         }
+        return pdf;
+    }
 
-        File generatedPdf = new File(texPath.replace(".tex", ".pdf"));
-        if (!generatedPdf.renameTo(new File(pdfOutputPath))) {
-            throw new IOException("Failed to move PDF to destination");
+    private static void log(InputStream xelatexOutput) {
+        try (BufferedReader reader = new BufferedReader(
+            new InputStreamReader(xelatexOutput))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                System.out.println("[XeLaTeX] " + line);
+            }
+        } catch (IOException e) {
+            // The process is gone; nothing more to show
         }
     }
-}
\ No newline at end of file
+}
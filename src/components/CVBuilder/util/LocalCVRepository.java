@@ -0,0 +1,493 @@
+package components.CVBuilder.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import components.CVBuilder.model.CV;
+import components.CVBuilder.model.CVSummary;
+import components.CVBuilder.model.Tracked;
+import components.CVBuilder.model.User;
+
+/**
+ * Embedded single-user {@link CVRepository} that needs no database server.
+ *
+ * All data is held in memory and persisted to an append-only log of JSON
+ * lines: every write appends the new state of the user or CV (or a delete
+ * marker) and forces it to disk. On startup the log is replayed, later
+ * records replacing earlier ones; a torn last line from a crash is skipped.
+ * Once most of the log is superseded it is compacted into a fresh file that
+ * atomically replaces the old one. The compacted file starts with the id
+ * counters, so ids of deleted users, CVs and rows are never handed out again.
+ *
+ * Settings: {@code db.local.path} (default {@code ~/.cvbuilder/cvbuilder.db})
+ * and {@code db.local.sync} (fsync after each write, default true).
+ */
+public class LocalCVRepository implements CVRepository {
+    private static final int COMPACT_MIN_RECORDS = 1_000;
+
+    private static LocalCVRepository instance;
+
+    private final Path file;
+    private final boolean syncWrites;
+    private FileChannel channel;
+
+    // Guarded by this
+    private final Map<Integer, User> users = new HashMap<>();
+    private final Map<String, User> usersByName = new HashMap<>();
+    private final Map<Integer, Entry> cvs = new TreeMap<>();
+    private int nextUserId = 1;
+    private int nextCvId = 1;
+    private int nextRowId = 1;
+    private int records;
+
+    public static synchronized LocalCVRepository getInstance() {
+        if (instance == null) {
+            Path file = Paths.get(DatabaseConfig.get("db.local.path",
+                    Paths.get(System.getProperty("user.home"), ".cvbuilder", "cvbuilder.db").toString()));
+            try {
+                instance = new LocalCVRepository(file, DatabaseConfig.getBoolean("db.local.sync", true));
+            } catch (IOException e) {
+                throw new RuntimeException("❌ Failed to open local store " + file + ": " + e.getMessage(), e);
+            }
+        }
+        return instance;
+    }
+
+    LocalCVRepository(Path file, boolean syncWrites) throws IOException {
+        this.file = file;
+        this.syncWrites = syncWrites;
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+
+        long start = System.nanoTime();
+        replay();
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        channel.position(channel.size());
+        compactIfNeeded();
+
+        System.out.printf("✅ Local store opened: %d user(s), %d CV(s) in %d ms%n",
+                users.size(), cvs.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    // User operations
+    @Override
+    public synchronized boolean registerUser(User user) throws SQLException {
+        if (user.getUsername() == null || user.getEmail() == null || user.getPassword() == null) {
+            throw new SQLException("Required field is missing", "23502");
+        }
+        if (usersByName.containsKey(user.getUsername())) {
+            throw new SQLException("Username already exists", "23505");
+        }
+        for (User existing : users.values()) {
+            if (existing.getEmail().equals(user.getEmail())) {
+                throw new SQLException("Email already exists", "23505");
+            }
+        }
+
+        User stored = new User(nextUserId, user.getUsername(), user.getEmail(), user.getPassword());
+        append(userRecord(stored));
+        nextUserId++;
+        putUser(stored);
+        return true;
+    }
+
+    @Override
+    public synchronized User loginUser(String username, String password) {
+        User stored = usersByName.get(username);
+        if (stored == null || !stored.getPassword().equals(password)) {
+            return null;
+        }
+        return new User(stored.getId(), stored.getUsername(), stored.getEmail(), "");
+    }
+
+    // CV operations
+    @Override
+    public synchronized int createCV(CV cv) throws SQLException {
+        if (!users.containsKey(cv.getUserId())) {
+            throw new SQLException("User does not exist", "23503");
+        }
+
+        int cvId = nextCvId;
+        CV stored = cv.copy();
+        stored.setId(cvId);
+        assignRowIds(stored);
+        Entry entry = new Entry(stored, LocalDateTime.now());
+
+        append(cvRecord(entry));
+        nextCvId++;
+        cvs.put(cvId, entry);
+
+        adoptIds(stored, cv);
+        cv.markClean();
+        stored.markClean();
+        return cvId;
+    }
+
+    @Override
+    public synchronized boolean updateCV(CV cv) throws SQLException {
+        if (cv.isTracked() && !cv.isDirty()) {
+            return true; // Nothing changed since the last load or save
+        }
+        return updateCVs(List.of(cv)) > 0;
+    }
+
+    @Override
+    public synchronized int updateCVs(Collection<CV> cvList) throws SQLException {
+        List<CV> saved = new ArrayList<>();
+        List<Entry> entries = new ArrayList<>();
+        StringBuilder batch = new StringBuilder();
+
+        for (CV cv : cvList) {
+            Entry existing = cvs.get(cv.getId());
+            if (existing == null || (cv.isTracked() && !cv.isDirty())) {
+                continue;
+            }
+            CV stored = cv.copy();
+            // The owner of a CV never changes
+            stored.setUserId(existing.cv.getUserId());
+            assignRowIds(stored);
+
+            Entry entry = new Entry(stored, LocalDateTime.now());
+            batch.append(cvRecord(entry));
+            entries.add(entry);
+            saved.add(cv);
+        }
+        if (entries.isEmpty()) {
+            return 0;
+        }
+
+        // One append for the whole batch
+        append(batch.toString());
+
+        records += entries.size() - 1;
+        for (int i = 0; i < entries.size(); i++) {
+            Entry entry = entries.get(i);
+            cvs.put(entry.cv.getId(), entry);
+            adoptIds(entry.cv, saved.get(i));
+            saved.get(i).markClean();
+            entry.cv.markClean();
+        }
+        compactQuietly();
+        return entries.size();
+    }
+
+    @Override
+    public synchronized boolean deleteCV(int cvId) throws SQLException {
+        return deleteCVs(List.of(cvId)) > 0;
+    }
+
+    @Override
+    public synchronized int deleteCVs(Collection<Integer> cvIds) throws SQLException {
+        StringBuilder batch = new StringBuilder();
+        List<Integer> existing = new ArrayList<>();
+        for (Integer cvId : cvIds) {
+            if (cvs.containsKey(cvId) && !existing.contains(cvId)) {
+                batch.append("{\"deleted\":").append(cvId).append("}\n");
+                existing.add(cvId);
+            }
+        }
+        if (existing.isEmpty()) {
+            return 0;
+        }
+
+        append(batch.toString());
+        records += existing.size() - 1;
+        for (Integer cvId : existing) {
+            cvs.remove(cvId);
+        }
+        compactQuietly();
+        return existing.size();
+    }
+
+    @Override
+    public synchronized List<CV> getCVsByUserId(int userId) {
+        List<CV> cvList = new ArrayList<>();
+        for (Entry entry : cvs.values()) {
+            if (entry.cv.getUserId() == userId) {
+                cvList.add(entry.cv.copy());
+            }
+        }
+        return cvList;
+    }
+
+    @Override
+    public synchronized List<CVSummary> getCVSummariesByUserId(int userId) {
+        List<CVSummary> summaries = new ArrayList<>();
+        for (Entry entry : cvs.values()) {
+            CV cv = entry.cv;
+            if (cv.getUserId() != userId) {
+                continue;
+            }
+            CVSummary summary = new CVSummary();
+            summary.setId(cv.getId());
+            summary.setTitle(cv.getTitle());
+            summary.setUpdatedAt(entry.updatedAt);
+            summary.setEducationCount(cv.getEducation().size());
+            summary.setExperienceCount(cv.getExperience().size());
+            summary.setSkillCount(cv.getSkills().size());
+            summary.setLanguageCount(cv.getLanguages().size());
+            summaries.add(summary);
+        }
+        summaries.sort(Comparator.comparing(CVSummary::getUpdatedAt,
+                Comparator.nullsLast(Comparator.reverseOrder())).thenComparingInt(CVSummary::getId));
+        return summaries;
+    }
+
+    @Override
+    public synchronized CV getCVById(int cvId) {
+        Entry entry = cvs.get(cvId);
+        return entry != null ? entry.cv.copy() : null;
+    }
+
+    public synchronized void close() throws IOException {
+        channel.force(false);
+        channel.close();
+    }
+
+    private void assignRowIds(CV cv) {
+        List<List<? extends Tracked>> sections = List.of(
+                cv.getEducation(), cv.getExperience(), cv.getSkills(), cv.getLanguages());
+        for (List<? extends Tracked> rows : sections) {
+            for (Tracked row : rows) {
+                if (row.getId() <= 0) {
+                    row.setId(nextRowId++);
+                } else {
+                    nextRowId = Math.max(nextRowId, row.getId() + 1);
+                }
+                row.setCvId(cv.getId());
+            }
+        }
+    }
+
+    // Copies generated ids back onto the caller's CV; the stored copy has the same row order
+    private static void adoptIds(CV stored, CV cv) {
+        cv.setId(stored.getId());
+        adoptRowIds(stored.getEducation(), cv.getEducation(), cv.getId());
+        adoptRowIds(stored.getExperience(), cv.getExperience(), cv.getId());
+        adoptRowIds(stored.getSkills(), cv.getSkills(), cv.getId());
+        adoptRowIds(stored.getLanguages(), cv.getLanguages(), cv.getId());
+    }
+
+    private static void adoptRowIds(List<? extends Tracked> stored, List<? extends Tracked> rows, int cvId) {
+        for (int i = 0; i < rows.size(); i++) {
+            rows.get(i).setId(stored.get(i).getId());
+            rows.get(i).setCvId(cvId);
+        }
+    }
+
+    private void putUser(User user) {
+        User previous = users.put(user.getId(), user);
+        if (previous != null) {
+            usersByName.remove(previous.getUsername());
+        }
+        usersByName.put(user.getUsername(), user);
+    }
+
+    // Log format
+
+    private static String userRecord(User user) {
+        StringBuilder line = new StringBuilder(128);
+        try {
+            line.append("{\"user\":{\"id\":").append(user.getId()).append(",\"username\":");
+            CVJson.quote(line, user.getUsername());
+            line.append(",\"email\":");
+            CVJson.quote(line, user.getEmail());
+            line.append(",\"password\":");
+            CVJson.quote(line, user.getPassword());
+            line.append("}}\n");
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // StringBuilder never throws
+        }
+        return line.toString();
+    }
+
+    private String countersRecord() {
+        return "{\"counters\":{\"nextUserId\":" + nextUserId + ",\"nextCvId\":" + nextCvId
+                + ",\"nextRowId\":" + nextRowId + "}}\n";
+    }
+
+    private static String cvRecord(Entry entry) {
+        StringBuilder line = new StringBuilder(512);
+        line.append("{\"updatedAt\":\"").append(entry.updatedAt).append("\",\"cv\":");
+        line.append(CVJson.toJson(entry.cv));
+        line.append("}\n");
+        return line.toString();
+    }
+
+    private void append(String lines) throws SQLException {
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(lines.getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            if (syncWrites) {
+                channel.force(false);
+            }
+            records++;
+        } catch (IOException e) {
+            throw new SQLException("Local store write failed: " + e.getMessage(), "58030", e);
+        }
+    }
+
+    private void replay() throws IOException {
+        if (!Files.exists(file)) {
+            return;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+                try {
+                    readRecord(line);
+                    records++;
+                } catch (IOException | RuntimeException e) {
+                    // Torn write from a crash; everything before it is intact
+                    System.err.println("Skipping unreadable local store record: " + e.getMessage());
+                }
+            }
+        }
+
+        for (Entry entry : cvs.values()) {
+            entry.cv.markClean();
+        }
+    }
+
+    private void readRecord(String line) throws IOException {
+        JsonReader json = new JsonReader(new StringReader(line));
+        User user = null;
+        CV cv = null;
+        LocalDateTime updatedAt = null;
+        Integer deleted = null;
+
+        json.beginObject();
+        while (json.hasNext()) {
+            switch (json.nextName()) {
+                case "user": user = readUser(json); break;
+                case "cv": cv = CVJson.read(json); break;
+                case "updatedAt": updatedAt = LocalDateTime.parse(json.nextString()); break;
+                case "deleted": deleted = json.nextInt(); break;
+                case "counters": readCounters(json); break;
+                default: json.skipValue();
+            }
+        }
+        json.endObject();
+
+        if (user != null) {
+            putUser(user);
+            nextUserId = Math.max(nextUserId, user.getId() + 1);
+        } else if (cv != null) {
+            assignRowIds(cv);
+            cvs.put(cv.getId(), new Entry(cv, updatedAt));
+            nextCvId = Math.max(nextCvId, cv.getId() + 1);
+        } else if (deleted != null) {
+            // The id stays reserved; after compaction only the counters record remembers it
+            cvs.remove(deleted);
+            nextCvId = Math.max(nextCvId, deleted + 1);
+        }
+    }
+
+    // Counters only ever move forward, whatever order the records come in
+    private void readCounters(JsonReader json) throws IOException {
+        json.beginObject();
+        while (json.hasNext()) {
+            switch (json.nextName()) {
+                case "nextUserId": nextUserId = Math.max(nextUserId, json.nextInt()); break;
+                case "nextCvId": nextCvId = Math.max(nextCvId, json.nextInt()); break;
+                case "nextRowId": nextRowId = Math.max(nextRowId, json.nextInt()); break;
+                default: json.skipValue();
+            }
+        }
+        json.endObject();
+    }
+
+    private static User readUser(JsonReader json) throws IOException {
+        User user = new User();
+        json.beginObject();
+        while (json.hasNext()) {
+            switch (json.nextName()) {
+                case "id": user.setId(json.nextInt()); break;
+                case "username": user.setUsername(json.nextString()); break;
+                case "email": user.setEmail(json.nextString()); break;
+                case "password": user.setPassword(json.nextString()); break;
+                default: json.skipValue();
+            }
+        }
+        json.endObject();
+        return user;
+    }
+
+    // Compaction
+
+    private void compactQuietly() {
+        try {
+            compactIfNeeded();
+        } catch (IOException e) {
+            System.err.println("Local store compaction failed: " + e.getMessage());
+        }
+    }
+
+    private void compactIfNeeded() throws IOException {
+        int live = users.size() + cvs.size();
+        if (records < COMPACT_MIN_RECORDS || records < live * 4) {
+            return;
+        }
+
+        Path temp = file.resolveSibling(file.getFileName() + ".compact");
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            StringBuilder lines = new StringBuilder(countersRecord());
+            for (User user : users.values()) {
+                lines.append(userRecord(user));
+            }
+            for (Entry entry : cvs.values()) {
+                lines.append(cvRecord(entry));
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                out.write(buffer);
+            }
+            out.force(true);
+        }
+
+        channel.close();
+        try {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            records = live + 1;
+        } finally {
+            // Keep appending to whichever file is now in place
+            channel = FileChannel.open(file, StandardOpenOption.WRITE);
+            channel.position(channel.size());
+        }
+    }
+
+    private static final class Entry {
+        final CV cv;
+        final LocalDateTime updatedAt;
+
+        Entry(CV cv, LocalDateTime updatedAt) {
+            this.cv = cv;
+            this.updatedAt = updatedAt;
+        }
+    }
+}
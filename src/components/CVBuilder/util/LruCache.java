@@ -0,0 +1,152 @@
+package components.CVBuilder.util;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Thread-safe, size-bounded LRU cache whose entries also expire after a fixed
+ * time to live. Values are stored as given, so callers should only put
+ * snapshots they will not mutate afterwards.
+ *
+ * Loads that race with an invalidation are handled with a generation counter:
+ * read {@link #generation()} before loading and pass it to
+ * {@link #put(Object, Object, long)}, which drops the value if anything was
+ * invalidated in between.
+ */
+public class LruCache<K, V> {
+    private final int maxSize;
+    private final long ttlMillis;
+    private final LinkedHashMap<K, Entry<V>> entries;
+
+    private long generation;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public LruCache(int maxSize, long ttlMillis) {
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlMillis;
+        this.entries = new LinkedHashMap<K, Entry<V>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > LruCache.this.maxSize) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public synchronized V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry != null && entry.expiresAt <= System.currentTimeMillis()) {
+            entries.remove(key);
+            evictions++;
+            entry = null;
+        }
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry.value;
+    }
+
+    public synchronized long generation() {
+        return generation;
+    }
+
+    /**
+     * Stores the value unless an invalidation happened after {@code loadedAtGeneration}.
+     */
+    public synchronized void put(K key, V value, long loadedAtGeneration) {
+        if (maxSize > 0 && loadedAtGeneration == generation) {
+            entries.put(key, new Entry<>(value, System.currentTimeMillis() + ttlMillis));
+        }
+    }
+
+    public synchronized void put(K key, V value) {
+        put(key, value, generation);
+    }
+
+    public synchronized void invalidate(K key) {
+        generation++;
+        entries.remove(key);
+    }
+
+    public synchronized void invalidateIf(Predicate<V> condition) {
+        generation++;
+        Iterator<Entry<V>> it = entries.values().iterator();
+        while (it.hasNext()) {
+            if (condition.test(it.next().value)) {
+                it.remove();
+            }
+        }
+    }
+
+    public synchronized void invalidateAll() {
+        generation++;
+        entries.clear();
+    }
+
+    public synchronized Stats getStats() {
+        return new Stats(entries.size(), hits, misses, evictions);
+    }
+
+    private static final class Entry<V> {
+        final V value;
+        final long expiresAt;
+
+        Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /**
+     * Point-in-time snapshot of cache usage.
+     */
+    public static final class Stats {
+        private final int size;
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+
+        Stats(int size, long hits, long misses, long evictions) {
+            this.size = size;
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        public long getHits() {
+            return hits;
+        }
+
+        public long getMisses() {
+            return misses;
+        }
+
+        public long getEvictions() {
+            return evictions;
+        }
+
+        public double getHitRatio() {
+            long total = hits + misses;
+            return total == 0 ? 0 : (double) hits / total;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("size=%d, hits=%d, misses=%d, evictions=%d, hitRatio=%.2f",
+                    size, hits, misses, evictions, getHitRatio());
+        }
+    }
+}
@@ -0,0 +1,586 @@
+package components.CVBuilder.util;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Latency and volume metrics for database access.
+ *
+ * Each DAO method runs inside {@link #record(String, Work)}, which times the
+ * logical operation. The statements it executes are instrumented through the
+ * connection pool's {@link ConnectionPool.StatementDecorator} hook and charge
+ * their round trips, rows read and rows written to the operation running on
+ * the same thread. Failed statements are counted by SQLState, and statements
+ * slower than {@code db.slowQueryMs} are written to the slow-query log
+ * ({@code db.slowQueryLog}, or stderr) with their SQL and the types of their
+ * bind parameters, never the values.
+ *
+ * The metrics are published over JMX and can be written to a file with
+ * {@link #dump(Path)}.
+ */
+public class QueryMetrics implements QueryMetricsMXBean, ConnectionPool.StatementDecorator {
+    public static final String OBJECT_NAME = "components.CVBuilder:type=QueryMetrics";
+    private static final int MAX_LOGGED_SQL = 2_000;
+
+    private static QueryMetrics instance;
+
+    private final Map<String, OperationStats> operations = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> errorsBySqlState = new ConcurrentHashMap<>();
+    private final LongAdder statements = new LongAdder();
+    private final LongAdder slowQueries = new LongAdder();
+    private final ThreadLocal<Scope> currentScope = new ThreadLocal<>();
+    private final Path slowQueryLog;
+    private volatile long slowQueryThresholdNanos;
+
+    /**
+     * Database work measured as one logical operation.
+     */
+    public interface Work<T> {
+        T run() throws SQLException;
+    }
+
+    public static synchronized QueryMetrics getInstance() {
+        if (instance == null) {
+            String logFile = DatabaseConfig.get("db.slowQueryLog", "");
+            instance = new QueryMetrics(logFile.trim().isEmpty() ? null : Paths.get(logFile.trim()),
+                    DatabaseConfig.getInt("db.slowQueryMs", 200));
+            try {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(instance, new ObjectName(OBJECT_NAME));
+            } catch (JMException e) {
+                System.err.println("Query metrics not published over JMX: " + e.getMessage());
+            }
+        }
+        return instance;
+    }
+
+    QueryMetrics(Path slowQueryLog, long slowQueryThresholdMillis) {
+        this.slowQueryLog = slowQueryLog;
+        this.slowQueryThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowQueryThresholdMillis);
+    }
+
+    /**
+     * Runs the work as the named operation. Nested calls on the same thread
+     * are charged to the outermost operation.
+     */
+    public <T> T record(String operation, Work<T> work) throws SQLException {
+        if (currentScope.get() != null) {
+            return work.run();
+        }
+
+        Scope scope = new Scope(operation);
+        currentScope.set(scope);
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            T result = work.run();
+            failed = false;
+            return result;
+        } finally {
+            currentScope.remove();
+            operations.computeIfAbsent(operation, OperationStats::new)
+                    .record(System.nanoTime() - start, scope, failed);
+        }
+    }
+
+    // Statement instrumentation
+
+    @Override
+    public Statement decorate(Statement statement, Class<?> type, String sql) {
+        return (Statement) Proxy.newProxyInstance(QueryMetrics.class.getClassLoader(),
+                new Class<?>[] { type }, new StatementHandler(statement, sql));
+    }
+
+    @Override
+    public void onTransactionEnd(long elapsedNanos) {
+        Scope scope = currentScope.get();
+        if (scope != null) {
+            scope.roundTrips++;
+        }
+    }
+
+    private void onStatement(String sql, Map<Integer, String> binds, int batchSize, long elapsedNanos,
+                             long rowsWritten, SQLException error) {
+        statements.increment();
+        Scope scope = currentScope.get();
+        if (scope != null) {
+            scope.roundTrips++;
+            scope.rowsWritten += rowsWritten;
+        }
+        if (error != null) {
+            String sqlState = error.getSQLState() != null ? error.getSQLState() : "unknown";
+            errorsBySqlState.computeIfAbsent(sqlState, key -> new LongAdder()).increment();
+        }
+        if (elapsedNanos >= slowQueryThresholdNanos) {
+            slowQueries.increment();
+            logSlowQuery(sql, binds, batchSize, elapsedNanos, scope, error);
+        }
+    }
+
+    private void onRowRead() {
+        Scope scope = currentScope.get();
+        if (scope != null) {
+            scope.rowsRead++;
+        }
+    }
+
+    private void logSlowQuery(String sql, Map<Integer, String> binds, int batchSize, long elapsedNanos,
+                              Scope scope, SQLException error) {
+        String statement = sql == null ? "?" : sql.replaceAll("\\s+", " ").trim();
+        if (statement.length() > MAX_LOGGED_SQL) {
+            statement = statement.substring(0, MAX_LOGGED_SQL) + "...";
+        }
+
+        StringBuilder line = new StringBuilder(256);
+        line.append(LocalDateTime.now())
+            .append(" slow query ").append(String.format("%.1f", elapsedNanos / 1e6)).append(" ms")
+            .append(" op=").append(scope != null ? scope.operation : "-");
+        if (batchSize > 0) {
+            line.append(" batch=").append(batchSize);
+        }
+        line.append(" binds=").append(binds.values());
+        if (error != null) {
+            line.append(" failed=").append(error.getSQLState());
+        }
+        line.append(" sql=").append(statement).append('\n');
+
+        if (slowQueryLog == null) {
+            System.err.print(line);
+            return;
+        }
+        synchronized (this) {
+            try {
+                Files.writeString(slowQueryLog, line, StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            } catch (IOException e) {
+                System.err.print(line);
+            }
+        }
+    }
+
+    // Reporting
+
+    @Override
+    public List<OperationSnapshot> getOperations() {
+        List<OperationSnapshot> snapshots = new ArrayList<>();
+        for (OperationStats stats : new TreeMap<>(operations).values()) {
+            snapshots.add(stats.snapshot());
+        }
+        return snapshots;
+    }
+
+    @Override
+    public Map<String, Long> getErrorsBySqlState() {
+        Map<String, Long> errors = new TreeMap<>();
+        errorsBySqlState.forEach((sqlState, count) -> errors.put(sqlState, count.sum()));
+        return errors;
+    }
+
+    @Override
+    public long getStatementCount() {
+        return statements.sum();
+    }
+
+    @Override
+    public long getSlowQueryCount() {
+        return slowQueries.sum();
+    }
+
+    @Override
+    public long getSlowQueryThresholdMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(slowQueryThresholdNanos);
+    }
+
+    @Override
+    public void setSlowQueryThresholdMillis(long thresholdMillis) {
+        slowQueryThresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+    }
+
+    @Override
+    public String dumpTo(String path) {
+        Path file = Paths.get(path).toAbsolutePath();
+        try {
+            dump(file);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to write metrics to " + file + ": " + e.getMessage());
+        }
+        return file.toString();
+    }
+
+    public void dump(Path file) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        Files.writeString(file, report(), StandardCharsets.UTF_8);
+    }
+
+    public String report() {
+        StringBuilder report = new StringBuilder();
+        report.append("Query metrics at ").append(LocalDateTime.now()).append('\n');
+        report.append(String.format("%-24s %8s %6s %9s %9s %9s %9s %10s %10s %8s%n",
+                "operation", "calls", "errors", "p50 ms", "p95 ms", "p99 ms", "max ms",
+                "rows read", "rows wrt", "trips/op"));
+        for (OperationSnapshot op : getOperations()) {
+            report.append(String.format("%-24s %8d %6d %9.2f %9.2f %9.2f %9.2f %10d %10d %8.2f%n",
+                    op.getName(), op.getCount(), op.getErrors(), op.getP50Millis(), op.getP95Millis(),
+                    op.getP99Millis(), op.getMaxMillis(), op.getRowsRead(), op.getRowsWritten(),
+                    op.getRoundTripsPerCall()));
+        }
+        report.append("statements=").append(getStatementCount())
+              .append(", slow=").append(getSlowQueryCount())
+              .append(" (>= ").append(getSlowQueryThresholdMillis()).append(" ms)")
+              .append(", errors by SQLState=").append(getErrorsBySqlState()).append('\n');
+        return report.toString();
+    }
+
+    @Override
+    public void reset() {
+        operations.clear();
+        errorsBySqlState.clear();
+        statements.reset();
+        slowQueries.reset();
+    }
+
+    // Per-thread counters of the operation in progress
+    private static final class Scope {
+        final String operation;
+        long rowsRead;
+        long rowsWritten;
+        long roundTrips;
+
+        Scope(String operation) {
+            this.operation = operation;
+        }
+    }
+
+    private static final class OperationStats {
+        final String name;
+        final LatencyHistogram latency = new LatencyHistogram();
+        final LongAdder errors = new LongAdder();
+        final LongAdder rowsRead = new LongAdder();
+        final LongAdder rowsWritten = new LongAdder();
+        final LongAdder roundTrips = new LongAdder();
+
+        OperationStats(String name) {
+            this.name = name;
+        }
+
+        void record(long elapsedNanos, Scope scope, boolean failed) {
+            latency.record(TimeUnit.NANOSECONDS.toMicros(elapsedNanos));
+            if (failed) {
+                errors.increment();
+            }
+            rowsRead.add(scope.rowsRead);
+            rowsWritten.add(scope.rowsWritten);
+            roundTrips.add(scope.roundTrips);
+        }
+
+        OperationSnapshot snapshot() {
+            long count = latency.count();
+            return new OperationSnapshot(name, count, errors.sum(),
+                    latency.percentile(0.50) / 1000.0, latency.percentile(0.95) / 1000.0,
+                    latency.percentile(0.99) / 1000.0, latency.max() / 1000.0,
+                    rowsRead.sum(), rowsWritten.sum(), roundTrips.sum());
+        }
+    }
+
+    /**
+     * Lock-free log-linear histogram of microsecond values: exact below 16,
+     * then 8 buckets per power of two, so percentiles are within 12.5%.
+     */
+    static final class LatencyHistogram {
+        private static final int LINEAR = 16;
+        private static final int SUB_BUCKETS = 8;
+        private static final int BUCKETS = LINEAR + (63 - 4) * SUB_BUCKETS;
+
+        private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+        private final LongAdder total = new LongAdder();
+        private final AtomicLong max = new AtomicLong();
+
+        void record(long micros) {
+            long value = Math.max(0, micros);
+            counts.incrementAndGet(indexOf(value));
+            total.increment();
+            max.accumulateAndGet(value, Math::max);
+        }
+
+        long count() {
+            return total.sum();
+        }
+
+        long max() {
+            return max.get();
+        }
+
+        /**
+         * Upper bound of the bucket holding the given quantile, capped at the maximum.
+         */
+        long percentile(double quantile) {
+            long count = count();
+            if (count == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(quantile * count);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += counts.get(i);
+                if (seen >= rank) {
+                    return Math.min(upperBound(i), max());
+                }
+            }
+            return max();
+        }
+
+        private static int indexOf(long value) {
+            if (value < LINEAR) {
+                return (int) value;
+            }
+            int exponent = 63 - Long.numberOfLeadingZeros(value);
+            int sub = (int) (value >>> (exponent - 3)) & (SUB_BUCKETS - 1);
+            return LINEAR + (exponent - 4) * SUB_BUCKETS + sub;
+        }
+
+        private static long upperBound(int index) {
+            if (index < LINEAR) {
+                return index;
+            }
+            int exponent = (index - LINEAR) / SUB_BUCKETS + 4;
+            int sub = (index - LINEAR) % SUB_BUCKETS;
+            return ((long) (SUB_BUCKETS + sub + 1) << (exponent - 3)) - 1;
+        }
+    }
+
+    /**
+     * Point-in-time view of one operation, as exposed over JMX.
+     */
+    public static final class OperationSnapshot {
+        private final String name;
+        private final long count;
+        private final long errors;
+        private final double p50Millis;
+        private final double p95Millis;
+        private final double p99Millis;
+        private final double maxMillis;
+        private final long rowsRead;
+        private final long rowsWritten;
+        private final long roundTrips;
+
+        OperationSnapshot(String name, long count, long errors, double p50Millis, double p95Millis,
+                          double p99Millis, double maxMillis, long rowsRead, long rowsWritten, long roundTrips) {
+            this.name = name;
+            this.count = count;
+            this.errors = errors;
+            this.p50Millis = p50Millis;
+            this.p95Millis = p95Millis;
+            this.p99Millis = p99Millis;
+            this.maxMillis = maxMillis;
+            this.rowsRead = rowsRead;
+            this.rowsWritten = rowsWritten;
+            this.roundTrips = roundTrips;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getErrors() {
+            return errors;
+        }
+
+        public double getP50Millis() {
+            return p50Millis;
+        }
+
+        public double getP95Millis() {
+            return p95Millis;
+        }
+
+        public double getP99Millis() {
+            return p99Millis;
+        }
+
+        public double getMaxMillis() {
+            return maxMillis;
+        }
+
+        public long getRowsRead() {
+            return rowsRead;
+        }
+
+        public long getRowsWritten() {
+            return rowsWritten;
+        }
+
+        public long getRoundTrips() {
+            return roundTrips;
+        }
+
+        public double getRoundTripsPerCall() {
+            return count == 0 ? 0 : (double) roundTrips / count;
+        }
+    }
+
+    // JDBC proxies
+
+    private final class StatementHandler implements InvocationHandler {
+        private final Statement target;
+        private final String sql;
+        // Parameter index -> type shape of the value bound to it
+        private final Map<Integer, String> binds = new TreeMap<>();
+        private final List<String> batchSql = new ArrayList<>();
+        private int batchSize;
+
+        StatementHandler(Statement target, String sql) {
+            this.target = target;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                binds.put((Integer) args[0], shapeOf(name, args[1]));
+            } else if (name.equals("clearParameters")) {
+                binds.clear();
+            } else if (name.equals("addBatch")) {
+                batchSize++;
+                if (args != null && args.length == 1) {
+                    batchSql.add((String) args[0]);
+                }
+            } else if (name.equals("clearBatch")) {
+                batchSize = 0;
+                batchSql.clear();
+            }
+
+            if (!name.startsWith("execute")) {
+                Object result = invokeTarget(method, args);
+                if (result instanceof ResultSet) {
+                    return wrap((ResultSet) result);
+                }
+                return result;
+            }
+
+            String executed = args != null && args.length > 0 && args[0] instanceof String
+                    ? (String) args[0]
+                    : batchSql.isEmpty() ? sql : String.join("; ", batchSql);
+            long start = System.nanoTime();
+            Object result;
+            try {
+                result = invokeTarget(method, args);
+            } catch (SQLException e) {
+                onStatement(executed, binds, batchSize, System.nanoTime() - start, 0, e);
+                throw e;
+            }
+            onStatement(executed, binds, name.equals("executeBatch") ? batchSize : 0,
+                    System.nanoTime() - start, rowsWritten(result), null);
+
+            if (name.equals("executeBatch") || name.equals("executeLargeBatch")) {
+                batchSize = 0;
+                batchSql.clear();
+            }
+            if (result instanceof ResultSet) {
+                return wrap((ResultSet) result);
+            }
+            return result;
+        }
+
+        private Object invokeTarget(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        private ResultSet wrap(ResultSet resultSet) {
+            return (ResultSet) Proxy.newProxyInstance(QueryMetrics.class.getClassLoader(),
+                    new Class<?>[] { ResultSet.class }, new ResultSetHandler(resultSet));
+        }
+    }
+
+    private final class ResultSetHandler implements InvocationHandler {
+        private final ResultSet target;
+
+        ResultSetHandler(ResultSet target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            if (Boolean.TRUE.equals(result) && method.getName().equals("next")) {
+                onRowRead();
+            }
+            return result;
+        }
+    }
+
+    private static long rowsWritten(Object result) {
+        if (result instanceof Integer) {
+            return Math.max(0, (Integer) result);
+        }
+        if (result instanceof Long) {
+            return Math.max(0, (Long) result);
+        }
+        long rows = 0;
+        if (result instanceof int[]) {
+            for (int count : (int[]) result) {
+                // SUCCESS_NO_INFO (-2) still means one row was touched
+                rows += count == Statement.SUCCESS_NO_INFO ? 1 : Math.max(0, count);
+            }
+        } else if (result instanceof long[]) {
+            for (long count : (long[]) result) {
+                rows += count == Statement.SUCCESS_NO_INFO ? 1 : Math.max(0, count);
+            }
+        }
+        return rows;
+    }
+
+    private static String shapeOf(String setter, Object value) {
+        if (setter.equals("setNull") || value == null) {
+            return "null";
+        }
+        if (value instanceof String) {
+            return "varchar(" + ((String) value).length() + ")";
+        }
+        String type = setter.substring(3);
+        if (type.equals("Object")) {
+            type = value.getClass().getSimpleName();
+        }
+        return type.toLowerCase();
+    }
+}
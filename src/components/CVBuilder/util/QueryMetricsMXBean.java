@@ -0,0 +1,30 @@
+package components.CVBuilder.util;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JMX view of {@link QueryMetrics}, registered as
+ * {@code components.CVBuilder:type=QueryMetrics}.
+ */
+public interface QueryMetricsMXBean {
+
+    List<QueryMetrics.OperationSnapshot> getOperations();
+
+    Map<String, Long> getErrorsBySqlState();
+
+    long getStatementCount();
+
+    long getSlowQueryCount();
+
+    long getSlowQueryThresholdMillis();
+
+    void setSlowQueryThresholdMillis(long thresholdMillis);
+
+    /**
+     * Writes the current report to the given file and returns its absolute path.
+     */
+    String dumpTo(String path);
+
+    void reset();
+}
@@ -0,0 +1,129 @@
+package components.CVBuilder.util;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import components.CVBuilder.model.CV;
+import freemarker.template.TemplateException;
+
+/**
+ * One PDF render in a scratch directory of its own, so any number of jobs can
+ * run at the same time without sharing .aux, .log or .pdf files. Closing the
+ * job deletes the directory with everything xelatex left in it:
+ *
+ * <pre>
+ * try (RenderJob job = RenderJob.create()) {
+ *     job.renderTo(cv, destination);
+ * }
+ * </pre>
+ *
+ * A job is meant for one thread; create one job per render.
+ */
+public class RenderJob implements AutoCloseable {
+    private static final String DIR_PREFIX = "cvbuilder-render-";
+    private static final String JOB_NAME = "cv";
+    // Directories of jobs that never got closed (killed process) are swept after this long
+    private static final long STALE_MILLIS = TimeUnit.DAYS.toMillis(1);
+
+    private static final AtomicBoolean staleSwept = new AtomicBoolean();
+
+    private final Path workDir;
+    private boolean closed;
+
+    /**
+     * Creates a job with a new, empty directory under
+     * {@link LatexToPdfConverter#getScratchRoot()}.
+     */
+    public static RenderJob create() throws IOException {
+        Path root = LatexToPdfConverter.getScratchRoot();
+        Files.createDirectories(root);
+        if (staleSwept.compareAndSet(false, true)) {
+            sweepStale(root);
+        }
+        return new RenderJob(Files.createTempDirectory(root, DIR_PREFIX));
+    }
+
+    private RenderJob(Path workDir) {
+        this.workDir = workDir;
+    }
+
+    public Path getWorkDir() {
+        return workDir;
+    }
+
+    /**
+     * Renders the CV and returns the PDF, which lives in this job's directory
+     * until the job is closed.
+     */
+    public Path render(CV cv) throws IOException, InterruptedException, TemplateException {
+        if (closed) {
+            throw new IllegalStateException("Render job is closed");
+        }
+        return LatexToPdfConverter.renderPdf(out -> LaTeXGenerator.generateLatex(cv, out), workDir, JOB_NAME);
+    }
+
+    /**
+     * Renders the CV and moves the PDF to {@code destination}, replacing any
+     * file there.
+     */
+    public void renderTo(CV cv, Path destination) throws IOException, InterruptedException, TemplateException {
+        Files.move(render(cv), destination, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            deleteTree(workDir);
+        } catch (IOException e) {
+            System.err.println("Render directory not removed: " + workDir + " (" + e.getMessage() + ")");
+        }
+    }
+
+    private static void sweepStale(Path root) {
+        long cutoff = System.currentTimeMillis() - STALE_MILLIS;
+        try (DirectoryStream<Path> dirs = Files.newDirectoryStream(root, DIR_PREFIX + "*")) {
+            for (Path dir : dirs) {
+                if (Files.isDirectory(dir) && Files.getLastModifiedTime(dir).toMillis() < cutoff) {
+                    deleteTree(dir);
+                }
+            }
+        } catch (IOException e) {
+            // Left for the next start; they only take space
+            System.err.println("Stale render directories not removed: " + e.getMessage());
+        }
+    }
+
+    private static void deleteTree(Path dir) throws IOException {
+        if (!Files.exists(dir)) {
+            return;
+        }
+        Files.walkFileTree(dir, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                Files.delete(file);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path directory, IOException e) throws IOException {
+                if (e != null) {
+                    throw e;
+                }
+                Files.delete(directory);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+}
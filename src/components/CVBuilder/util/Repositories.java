@@ -0,0 +1,30 @@
+package components.CVBuilder.util;
+
+/**
+ * Hands out the {@link CVRepository} chosen by {@code db.backend}:
+ * {@code postgres} (default) uses {@link DatabaseHandler}, {@code local} uses
+ * the embedded {@link LocalCVRepository} and needs no database server.
+ */
+public class Repositories {
+    private static CVRepository instance;
+
+    private Repositories() {
+    }
+
+    public static synchronized CVRepository get() {
+        if (instance == null) {
+            String backend = DatabaseConfig.getBackend();
+            switch (backend) {
+                case DatabaseConfig.BACKEND_POSTGRES:
+                    instance = DatabaseHandler.getInstance();
+                    break;
+                case DatabaseConfig.BACKEND_LOCAL:
+                    instance = LocalCVRepository.getInstance();
+                    break;
+                default:
+                    throw new RuntimeException("❌ Unknown db.backend: " + backend);
+            }
+        }
+        return instance;
+    }
+}
@@ -0,0 +1,240 @@
+package components.CVBuilder.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Versioned schema migrations for the PostgreSQL backend.
+ *
+ * Scripts live in {@code resources/db/migration} as {@code V<n>__<name>.sql}
+ * and are listed in {@link #MIGRATIONS} in the order they apply. Applied
+ * versions are recorded in {@code schema_version} together with a checksum of
+ * the script; each pending script runs in its own transaction under an
+ * advisory lock, so two clients starting at once do not race.
+ */
+public class SchemaMigrator {
+    private static final String MIGRATION_PATH = "components/CVBuilder/resources/db/migration/";
+    private static final String[] MIGRATIONS = {
+            "V1__create_schema.sql",
+            "V2__foreign_key_indexes.sql",
+            "V3__save_cv_aggregate.sql",
+            "V4__cv_change_notifications.sql",
+    };
+
+    // Arbitrary key for pg_advisory_xact_lock, shared by all clients
+    private static final long LOCK_KEY = 0x43564275696c6472L;
+
+    private final Connection connection;
+
+    public SchemaMigrator(Connection connection) {
+        this.connection = connection;
+    }
+
+    /**
+     * Applies all pending migrations and returns how many were run.
+     */
+    public int migrate() throws SQLException {
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try {
+            createVersionTable();
+            Map<Integer, Long> applied = appliedVersions();
+
+            int count = 0;
+            for (String script : MIGRATIONS) {
+                int version = versionOf(script);
+                String sql = load(script);
+                long checksum = checksum(sql);
+
+                if (applied.containsKey(version)) {
+                    if (applied.get(version) != checksum) {
+                        System.err.println("⚠ Migration " + script + " changed after it was applied");
+                    }
+                    continue;
+                }
+                if (apply(version, script, sql, checksum)) {
+                    count++;
+                }
+            }
+
+            if (count > 0) {
+                System.out.println("✅ Applied " + count + " schema migration(s)");
+            }
+            return count;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    private void createVersionTable() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS schema_version (" +
+                    "version INTEGER PRIMARY KEY, " +
+                    "script VARCHAR(200) NOT NULL, " +
+                    "checksum BIGINT NOT NULL, " +
+                    "installed_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP, " +
+                    "execution_ms INTEGER NOT NULL)");
+            connection.commit();
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        }
+    }
+
+    private Map<Integer, Long> appliedVersions() throws SQLException {
+        Map<Integer, Long> applied = new HashMap<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT version, checksum FROM schema_version")) {
+            while (resultSet.next()) {
+                applied.put(resultSet.getInt("version"), resultSet.getLong("checksum"));
+            }
+        }
+        connection.commit();
+        return applied;
+    }
+
+    private boolean apply(int version, String script, String sql, long checksum) throws SQLException {
+        long start = System.nanoTime();
+        try {
+            try (PreparedStatement lock = connection.prepareStatement("SELECT pg_advisory_xact_lock(?)")) {
+                lock.setLong(1, LOCK_KEY);
+                lock.execute();
+            }
+
+            // Another client may have applied it while we waited for the lock
+            try (PreparedStatement check = connection.prepareStatement(
+                    "SELECT 1 FROM schema_version WHERE version = ?")) {
+                check.setInt(1, version);
+                try (ResultSet resultSet = check.executeQuery()) {
+                    if (resultSet.next()) {
+                        connection.rollback();
+                        return false;
+                    }
+                }
+            }
+
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(sql);
+            }
+
+            try (PreparedStatement record = connection.prepareStatement(
+                    "INSERT INTO schema_version (version, script, checksum, execution_ms) VALUES (?, ?, ?, ?)")) {
+                record.setInt(1, version);
+                record.setString(2, script);
+                record.setLong(3, checksum);
+                record.setInt(4, (int) ((System.nanoTime() - start) / 1_000_000));
+                record.executeUpdate();
+            }
+
+            connection.commit();
+            System.out.println("Applied migration " + script);
+            return true;
+        } catch (SQLException | RuntimeException e) {
+            connection.rollback();
+            throw new SQLException("Migration " + script + " failed: " + e.getMessage(),
+                    e instanceof SQLException ? ((SQLException) e).getSQLState() : null, e);
+        }
+    }
+
+    /**
+     * Warns about hot read queries that still need a sequential scan when the
+     * planner is told to avoid them, which means no index supports the query,
+     * and prints their plans. Nothing is executed.
+     */
+    public void explainHotQueries() throws SQLException {
+        Map<String, String> queries = new LinkedHashMap<>();
+        queries.put("CVs by user", DatabaseHandler.CVS_BY_USER_QUERY);
+        queries.put("CV summaries by user", DatabaseHandler.CV_SUMMARIES_QUERY);
+        queries.put("CV by id", DatabaseHandler.CV_BY_ID_QUERY);
+        queries.put("CV aggregate by id", DatabaseHandler.CV_AGGREGATE_QUERY);
+        for (String table : new String[] { "education", "experience", "skills", "languages" }) {
+            queries.put("Load " + table, DatabaseHandler.childRowsQuery(table));
+        }
+
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try {
+            try (Statement statement = connection.createStatement()) {
+                // Tiny tables are always seq-scanned; this shows whether an index could be used
+                statement.execute("SET LOCAL enable_seqscan = off");
+            }
+
+            List<String> unindexed = new ArrayList<>();
+            for (Map.Entry<String, String> query : queries.entrySet()) {
+                List<String> plan = explain(query.getValue());
+                if (plan.stream().noneMatch(line -> line.contains("Seq Scan"))) {
+                    continue;
+                }
+                unindexed.add(query.getKey());
+                System.err.println("Plan for " + query.getKey() + ":");
+                for (String line : plan) {
+                    System.err.println("    " + line);
+                }
+            }
+
+            if (unindexed.isEmpty()) {
+                System.out.println("✅ All hot queries are index-backed");
+            } else {
+                System.err.println("⚠ Sequential scans in: " + String.join(", ", unindexed));
+            }
+        } finally {
+            connection.rollback();
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    private List<String> explain(String query) throws SQLException {
+        List<String> plan = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + query)) {
+            // Placeholder values only shape the plan; EXPLAIN does not run the query
+            if (query.contains("ANY(?)")) {
+                Array ids = connection.createArrayOf("integer", new Object[] { 0 });
+                statement.setArray(1, ids);
+            } else {
+                statement.setInt(1, 0);
+            }
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    plan.add(resultSet.getString(1));
+                }
+            }
+        }
+        return plan;
+    }
+
+    private static int versionOf(String script) {
+        return Integer.parseInt(script.substring(1, script.indexOf("__")));
+    }
+
+    private static String load(String script) {
+        try (InputStream input = SchemaMigrator.class.getClassLoader()
+                .getResourceAsStream(MIGRATION_PATH + script)) {
+            if (input == null) {
+                throw new IllegalStateException("Migration script not found: " + script);
+            }
+            return new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to read migration " + script, e);
+        }
+    }
+
+    private static long checksum(String sql) {
+        CRC32 crc = new CRC32();
+        // Line endings depend on how the sources were checked out
+        crc.update(sql.replace("\r\n", "\n").getBytes(StandardCharsets.UTF_8));
+        return crc.getValue();
+    }
+}
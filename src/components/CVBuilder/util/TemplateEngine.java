@@ -0,0 +1,141 @@
+package components.CVBuilder.util;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import freemarker.template.Configuration;
+import freemarker.template.Template;
+import freemarker.template.TemplateException;
+import freemarker.template.TemplateExceptionHandler;
+
+/**
+ * Shared FreeMarker setup for all renders. The {@link Configuration} is
+ * created once and the templates are parsed once, at startup; the compiled
+ * {@link Template}s are immutable and used concurrently by every render.
+ *
+ * Templates load from the classpath. For template development start with
+ * {@code -Dcvbuilder.templates.dir=src/components/CVBuilder/resources/templates}:
+ * they are then read from that directory and recompiled whenever a file in it
+ * changes, without restarting the application.
+ */
+public class TemplateEngine {
+    public static final String CV_TEMPLATE = "cv_template.ftl";
+
+    private static final String TEMPLATE_PATH = "components/CVBuilder/resources/templates";
+    // Compiled at startup so the first render does not pay for parsing
+    private static final String[] PRECOMPILED = { CV_TEMPLATE };
+
+    private static TemplateEngine instance;
+
+    private final Configuration configuration;
+    private final ConcurrentMap<String, Template> templates = new ConcurrentHashMap<>();
+
+    public static synchronized TemplateEngine getInstance() {
+        if (instance == null) {
+            String dir = System.getProperty("cvbuilder.templates.dir");
+            try {
+                instance = new TemplateEngine(dir == null || dir.trim().isEmpty() ? null : Paths.get(dir.trim()));
+            } catch (IOException e) {
+                throw new RuntimeException("❌ Failed to load templates: " + e.getMessage(), e);
+            }
+        }
+        return instance;
+    }
+
+    private TemplateEngine(Path hotReloadDir) throws IOException {
+        configuration = new Configuration(Configuration.VERSION_2_3_31);
+        configuration.setDefaultEncoding("UTF-8");
+        configuration.setTemplateExceptionHandler(TemplateExceptionHandler.RETHROW_HANDLER);
+        configuration.setLogTemplateExceptions(false);
+
+        if (hotReloadDir != null) {
+            configuration.setDirectoryForTemplateLoading(hotReloadDir.toFile());
+        } else {
+            configuration.setClassLoaderForTemplateLoading(TemplateEngine.class.getClassLoader(), TEMPLATE_PATH);
+            // Compiled templates are kept here; never go back to the loader to check for changes
+            configuration.setTemplateUpdateDelayMilliseconds(Long.MAX_VALUE);
+        }
+
+        for (String name : PRECOMPILED) {
+            templates.put(name, configuration.getTemplate(name));
+        }
+
+        if (hotReloadDir != null) {
+            watch(hotReloadDir);
+        }
+    }
+
+    /**
+     * Returns the compiled template, compiling it on first use if it was not
+     * precompiled.
+     */
+    public Template getTemplate(String name) throws IOException {
+        Template template = templates.get(name);
+        if (template == null) {
+            template = configuration.getTemplate(name);
+            Template raced = templates.putIfAbsent(name, template);
+            if (raced != null) {
+                template = raced;
+            }
+        }
+        return template;
+    }
+
+    public void process(String name, Object dataModel, Writer out) throws IOException, TemplateException {
+        getTemplate(name).process(dataModel, out);
+    }
+
+    private void watch(Path dir) throws IOException {
+        WatchService watcher = FileSystems.getDefault().newWatchService();
+        dir.register(watcher, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+
+        Thread thread = new Thread(() -> {
+            try {
+                while (true) {
+                    WatchKey key = watcher.take();
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        if (event.context() instanceof Path) {
+                            reload(dir.resolve((Path) event.context()));
+                        }
+                    }
+                    if (!key.reset()) {
+                        System.err.println("Template directory is gone; hot reload stopped: " + dir);
+                        return;
+                    }
+                }
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                // Shutting down
+            }
+        }, "template-hot-reload");
+        thread.setDaemon(true);
+        thread.start();
+        System.out.println("Hot-reloading templates from " + dir.toAbsolutePath());
+    }
+
+    private void reload(Path file) {
+        String name = file.getFileName().toString();
+        if (!name.endsWith(".ftl") || !Files.isRegularFile(file)) {
+            return;
+        }
+
+        try {
+            configuration.removeTemplateFromCache(name);
+            templates.put(name, configuration.getTemplate(name));
+            System.out.println("Reloaded template " + name);
+        } catch (IOException e) {
+            // Keep rendering with the last good version
+            System.err.println("Template " + name + " not reloaded: " + e.getMessage());
+        }
+    }
+}
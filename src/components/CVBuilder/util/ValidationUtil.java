@@ -7,6 +7,8 @@ import java.time.LocalDate;
 import components.CVBuilder.model.CV;
 import components.CVBuilder.model.Education;
 import components.CVBuilder.model.Experience;
+import components.CVBuilder.model.Language;
+import components.CVBuilder.model.Skill;
 import components.CVBuilder.model.User;
 
 public class ValidationUtil {
@@ -26,6 +28,9 @@ public class ValidationUtil {
         if (cv.getTitle() == null || cv.getTitle().isEmpty()) {
             throw new IllegalArgumentException("error.required_field:title");
         }
+        if (cv.getFullName() == null || cv.getFullName().isEmpty()) {
+            throw new IllegalArgumentException("error.required_field:full_name");
+        }
         if (cv.getEmail() == null || !cv.getEmail().matches("^[\\w-\\.]+@([\\w-]+\\.)+[\\w-]{2,4}$")) {
             throw new IllegalArgumentException("error.email_format");
         }
@@ -34,6 +39,25 @@ public class ValidationUtil {
         }
     }
 
+    /**
+     * Validates the CV header and every section row.
+     */
+    public static void validateCVAggregate(CV cv) throws IllegalArgumentException {
+        validateCV(cv);
+        for (Education education : cv.getEducation()) {
+            validateEducation(education);
+        }
+        for (Experience experience : cv.getExperience()) {
+            validateExperience(experience);
+        }
+        for (Skill skill : cv.getSkills()) {
+            validateSkill(skill);
+        }
+        for (Language language : cv.getLanguages()) {
+            validateLanguage(language);
+        }
+    }
+
     public static void validateEducation(Education education) throws IllegalArgumentException {
         if (education.getInstitution() == null || education.getInstitution().isEmpty()) {
             throw new IllegalArgumentException("error.required_field:institution");
@@ -50,6 +74,21 @@ public class ValidationUtil {
         validateDate(experience.getEndDate());
     }
 
+    public static void validateSkill(Skill skill) throws IllegalArgumentException {
+        if (skill.getName() == null || skill.getName().isEmpty()) {
+            throw new IllegalArgumentException("error.required_field:skill");
+        }
+        if (skill.getLevel() < 1 || skill.getLevel() > 5) {
+            throw new IllegalArgumentException("error.skill_level");
+        }
+    }
+
+    public static void validateLanguage(Language language) throws IllegalArgumentException {
+        if (language.getName() == null || language.getName().isEmpty()) {
+            throw new IllegalArgumentException("error.required_field:language");
+        }
+    }
+
     private static void validateDate(LocalDate date) throws IllegalArgumentException {
         if (date == null) {
 			return;
@@ -2,10 +2,14 @@
 package components.CVBuilder.view;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.sql.SQLException;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
 
 import components.CVBuilder.MainApp;
 import components.CVBuilder.model.CV;
@@ -14,13 +18,15 @@ import components.CVBuilder.model.Experience;
 import components.CVBuilder.model.Language;
 import components.CVBuilder.model.Skill;
 import components.CVBuilder.model.User;
-import components.CVBuilder.util.DatabaseHandler;
-import components.CVBuilder.util.LaTeXGenerator;
-import components.CVBuilder.util.LatexToPdfConverter;
+import components.CVBuilder.util.AsyncDatabaseHandler;
+import components.CVBuilder.util.EditJournal;
+import components.CVBuilder.util.RenderJob;
 import components.CVBuilder.util.ValidationUtil;
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.geometry.Insets;
 import javafx.scene.control.Alert;
+import javafx.scene.control.Button;
 import javafx.scene.control.ButtonBar;
 import javafx.scene.control.ButtonType;
 import javafx.scene.control.ComboBox;
@@ -29,6 +35,7 @@ import javafx.scene.control.Dialog;
 import javafx.scene.control.Label;
 import javafx.scene.control.ListCell;
 import javafx.scene.control.ListView;
+import javafx.scene.control.ScrollPane;
 import javafx.scene.control.Slider;
 import javafx.scene.control.TextArea;
 import javafx.scene.control.TextField;
@@ -67,9 +74,40 @@ public class CVEditorController {
     @FXML
     private ListView<Language> languagesListView;
 
+    @FXML
+    private Label statusLabel;
+
+    @FXML
+    private Button saveButton;
+
+    @FXML
+    private ScrollPane editorPane;
+
     private MainApp mainApp;
     private CV currentCV;
 
+    private final EditJournal.Listener journalListener = new EditJournal.Listener() {
+        // New rows of the open CV take the ids the flush gave them, so later saves update them in place
+        @Override
+        public void flushed(CV saved) {
+            Platform.runLater(() -> {
+                if (currentCV != null && currentCV.getId() == saved.getId()) {
+                    currentCV.adoptIds(saved);
+                }
+            });
+        }
+
+        // The save was rejected after "saved" was shown; let the user save it again
+        @Override
+        public void flushFailed(CV snapshot, String reason, Path deadLetterFile) {
+            Platform.runLater(() -> {
+                if (currentCV != null && currentCV.getId() == snapshot.getId()) {
+                    currentCV.markDirty();
+                }
+            });
+        }
+    };
+
     @FXML
     private void initialize() {
         // Setup cell factories for list views
@@ -77,6 +115,14 @@ public class CVEditorController {
         setupExperienceListView();
         setupSkillsListView();
         setupLanguagesListView();
+
+        EditJournal.addListener(journalListener);
+        // Stop listening once the editor is replaced by another screen
+        editorPane.sceneProperty().addListener((observable, oldScene, newScene) -> {
+            if (oldScene != null && newScene == null) {
+                EditJournal.removeListener(journalListener);
+            }
+        });
     }
 
     public void setMainApp(MainApp mainApp) {
@@ -84,14 +130,40 @@ public class CVEditorController {
     }
 
     public void loadUserCV(User user, int cvId) {
-        if (cvId > 0) {
-            // Load specific CV
-            this.currentCV = DatabaseHandler.getInstance().getCVById(cvId);
+        CV journaled = cvId > 0 ? findJournaledCV(user, cvId) : null;
+        if (journaled != null) {
+            // Edits not yet flushed to the database take precedence
+            showCV(journaled);
+        } else if (cvId > 0) {
+            // Load specific CV in the background
+            setBusy(mainApp.getBundle().getString("status.loading"));
+            AsyncDatabaseHandler.getInstance().getCVById(cvId).whenComplete((cv, error) -> {
+                setIdle();
+                if (error != null) {
+                    handleAsyncError(error);
+                } else if (cv != null) {
+                    showCV(cv);
+                }
+            });
         } else {
             // Create new CV
-            this.currentCV = new CV();
-            this.currentCV.setUserId(user.getId());
+            CV cv = new CV();
+            cv.setUserId(user.getId());
+            showCV(cv);
+        }
+    }
+
+    private CV findJournaledCV(User user, int cvId) {
+        try {
+            return EditJournal.forUser(user.getId()).getPending(cvId);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return null;
         }
+    }
+
+    private void showCV(CV cv) {
+        this.currentCV = cv;
 
         // Fill fields with CV data (or clear them for new CV)
         cvTitleField.setText(currentCV.getTitle() != null ? currentCV.getTitle() : "");
@@ -139,31 +211,35 @@ public class CVEditorController {
             currentCV.setSummary(summaryArea.getText());
 
             // Validate before saving
-            ValidationUtil.validateCV(currentCV);
-            for (Education edu : currentCV.getEducation()) {
-                ValidationUtil.validateEducation(edu);
-            }
-            for (Experience exp : currentCV.getExperience()) {
-                ValidationUtil.validateExperience(exp);
-            }
+            ValidationUtil.validateCVAggregate(currentCV);
 
-            // Save to database
-            boolean success;
             if (currentCV.getId() > 0) {
-                success = DatabaseHandler.getInstance().updateCV(currentCV);
-            } else {
-                int cvId = DatabaseHandler.getInstance().createCV(currentCV);
-                success = (cvId > 0);
-            }
-
-            if (success) {
+                // Existing CVs go to the local journal and reach the database in the background
+                if (currentCV.isDirty()) {
+                    EditJournal.forUser(currentCV.getUserId()).record(currentCV);
+                    currentCV.markClean();
+                }
                 showAlert(Alert.AlertType.INFORMATION,
                     mainApp.getBundle().getString("message.saved"));
+                return;
             }
+
+            // New CVs need their id, so they are created right away; the form stays locked until it finishes
+            CompletableFuture<Boolean> save =
+                    AsyncDatabaseHandler.getInstance().createCV(currentCV).thenApply(cvId -> cvId > 0);
+
+            setBusy(mainApp.getBundle().getString("status.saving"));
+            save.whenComplete((success, error) -> {
+                setIdle();
+                if (error != null) {
+                    handleAsyncError(error);
+                } else if (success) {
+                    showAlert(Alert.AlertType.INFORMATION,
+                        mainApp.getBundle().getString("message.saved"));
+                }
+            });
         } catch (IllegalArgumentException e) {
             handleValidationError(e);
-        } catch (SQLException e) {
-            handleDatabaseError(e);
         } catch (Exception e) {
             showAlert(Alert.AlertType.ERROR,
                 mainApp.getBundle().getString("error.general") + ": " + e.getMessage());
@@ -184,9 +260,33 @@ public class CVEditorController {
         showAlert(Alert.AlertType.ERROR, errorMessage);
     }
 
+    private void setBusy(String status) {
+        statusLabel.setText(status);
+        saveButton.setDisable(true);
+        editorPane.setDisable(true);
+    }
+
+    private void setIdle() {
+        statusLabel.setText("");
+        saveButton.setDisable(false);
+        editorPane.setDisable(false);
+    }
+
+    private void handleAsyncError(Throwable error) {
+        Throwable cause = AsyncDatabaseHandler.unwrap(error);
+        if (cause instanceof SQLException) {
+            handleDatabaseError((SQLException) cause);
+        } else if (cause instanceof TimeoutException) {
+            showAlert(Alert.AlertType.ERROR, mainApp.getBundle().getString("error.timeout"));
+        } else {
+            showAlert(Alert.AlertType.ERROR,
+                mainApp.getBundle().getString("message.error") + ": " + cause.getMessage());
+        }
+    }
+
     private void handleDatabaseError(SQLException e) {
         String errorKey;
-        switch (e.getSQLState()) {
+        switch (String.valueOf(e.getSQLState())) {
             case "23505":
                 errorKey = "error.unique_violation";
                 break;
@@ -226,34 +326,27 @@ public class CVEditorController {
 
 
         if (outputFile != null) {
-            try {
-
-            	 File workingDir = new File("output_temp");
-                 workingDir.mkdirs();
-
-                 String texPath = new File(workingDir, "CV.tex").getAbsolutePath();
-                 String pdfPath = outputFile.getAbsolutePath();
-
-                // 1. Generate LaTeX file in same directory
-
-                LaTeXGenerator.generateLatexFile(currentCV, texPath);
-                System.out.println("LaTeX file generated at: " + new File(texPath).getAbsolutePath());
-
-                // 2. Convert to PDF
-                LatexToPdfConverter.convertLatexToPdf(texPath, outputFile.getAbsolutePath());
-                if (outputFile.exists()) {
-                    System.out.println("PDF successfully created at: " + outputFile.getAbsolutePath());
+            // xelatex takes seconds, so it runs in the background on a snapshot while the form is locked
+            CV snapshot = currentCV.copy();
+            setBusy(mainApp.getBundle().getString("status.rendering"));
+            AsyncDatabaseHandler.getInstance().runInBackground(() -> {
+                // Each print renders in its own scratch directory, removed with all its files afterwards
+                try (RenderJob job = RenderJob.create()) {
+                    job.renderTo(snapshot, outputFile.toPath());
+                }
+                return null;
+            }).whenComplete((ignored, error) -> {
+                setIdle();
+                if (error != null) {
+                    Throwable cause = AsyncDatabaseHandler.unwrap(error);
+                    cause.printStackTrace();
+                    showAlert(Alert.AlertType.ERROR,
+                            mainApp.getBundle().getString("message.error") + ": " + cause.getMessage());
                 } else {
-                    System.out.println("ERROR: PDF was not created.");
+                    showAlert(Alert.AlertType.INFORMATION,
+                            mainApp.getBundle().getString("message.pdfSaved") + ": " + outputFile.getAbsolutePath());
                 }
-                // 3. Clean up temporary .tex and auxiliary files
-                new File(texPath).delete();
-            } catch (Exception e) {
-                e.printStackTrace();
-
-                showAlert(Alert.AlertType.INFORMATION,
-                         "PDF saved successfully at: " + outputFile.getAbsolutePath());
-            }
+            });
         }
     }
 
@@ -1,15 +1,25 @@
 
 package components.CVBuilder.view;
 
+import java.text.MessageFormat;
+import java.time.format.DateTimeFormatter;
+import java.time.format.FormatStyle;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 import components.CVBuilder.MainApp;
-import components.CVBuilder.model.CV;
+import components.CVBuilder.model.CVSummary;
 import components.CVBuilder.model.User;
-import components.CVBuilder.util.DatabaseHandler;
+import components.CVBuilder.util.AsyncDatabaseHandler;
+import components.CVBuilder.util.CVChangeNotifier;
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.geometry.Insets;
+import javafx.geometry.Pos;
 import javafx.scene.control.Button;
+import javafx.scene.control.CheckBox;
 import javafx.scene.control.Label;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.Priority;
@@ -25,8 +35,44 @@ public class DashboardController {
     @FXML
     private Label emptyLabel;
 
+    @FXML
+    private Button deleteSelectedButton;
+
     private MainApp mainApp;
     private User currentUser;
+    private final Set<Integer> selectedIds = new LinkedHashSet<>();
+
+    // Reloads the list when another application instance changes this user's CVs
+    private final CVChangeNotifier.Listener changeListener = new CVChangeNotifier.Listener() {
+        @Override
+        public void cvsChanged(Set<Integer> cvIds, Set<Integer> userIds) {
+            Platform.runLater(() -> {
+                if (currentUser != null && userIds.contains(currentUser.getId())) {
+                    refreshCVs();
+                }
+            });
+        }
+
+        @Override
+        public void changesMissed() {
+            Platform.runLater(() -> {
+                if (currentUser != null) {
+                    refreshCVs();
+                }
+            });
+        }
+    };
+
+    @FXML
+    private void initialize() {
+        CVChangeNotifier.getInstance().addListener(changeListener);
+        // Stop listening once the dashboard is replaced by another screen
+        cvListContainer.sceneProperty().addListener((observable, oldScene, newScene) -> {
+            if (oldScene != null && newScene == null) {
+                CVChangeNotifier.getInstance().removeListener(changeListener);
+            }
+        });
+    }
 
     public void setMainApp(MainApp mainApp) {
         this.mainApp = mainApp;
@@ -45,9 +91,46 @@ public class DashboardController {
     private void loadCVs() {
         // Clear existing items
         cvListContainer.getChildren().clear();
+        selectedIds.clear();
+        deleteSelectedButton.setDisable(true);
+        emptyLabel.setText(mainApp.getBundle().getString("status.loading"));
+        emptyLabel.setVisible(true);
+
+        // Get CV summaries for current user; sections load when a CV is opened
+        AsyncDatabaseHandler.getInstance().getCVSummariesByUserId(currentUser.getId())
+                .whenComplete((cvList, error) -> {
+                    if (error != null) {
+                        emptyLabel.setText(mainApp.getBundle().getString("error.database") + ": "
+                                + AsyncDatabaseHandler.unwrap(error).getMessage());
+                    } else {
+                        showCVs(cvList);
+                    }
+                });
+    }
 
-        // Get CVs for current user
-        List<CV> cvList = DatabaseHandler.getInstance().getCVsByUserId(currentUser.getId());
+    // Reloads in place without the loading placeholder, keeping the selection of CVs that still exist
+    private void refreshCVs() {
+        AsyncDatabaseHandler.getInstance().getCVSummariesByUserId(currentUser.getId())
+                .whenComplete((cvList, error) -> {
+                    if (error != null) {
+                        return; // Keep showing the current list
+                    }
+                    Set<Integer> stillSelected = new LinkedHashSet<>();
+                    for (CVSummary cv : cvList) {
+                        if (selectedIds.contains(cv.getId())) {
+                            stillSelected.add(cv.getId());
+                        }
+                    }
+                    cvListContainer.getChildren().clear();
+                    selectedIds.clear();
+                    selectedIds.addAll(stillSelected);
+                    deleteSelectedButton.setDisable(selectedIds.isEmpty());
+                    showCVs(cvList);
+                });
+    }
+
+    private void showCVs(List<CVSummary> cvList) {
+        emptyLabel.setText(mainApp.getBundle().getString("dashboard.empty"));
 
         if (cvList.isEmpty()) {
             // Show empty message
@@ -57,23 +140,43 @@ public class DashboardController {
             emptyLabel.setVisible(false);
 
             // Populate CV list
-            for (CV cv : cvList) {
+            for (CVSummary cv : cvList) {
                 HBox cvItem = createCVListItem(cv);
                 cvListContainer.getChildren().add(cvItem);
             }
         }
     }
 
-    private HBox createCVListItem(CV cv) {
+    private HBox createCVListItem(CVSummary cv) {
         HBox hbox = new HBox();
         hbox.setSpacing(10);
         hbox.setPadding(new Insets(5));
         hbox.getStyleClass().add("cv-item");
+        hbox.setAlignment(Pos.CENTER_LEFT);
+
+        // Selection for bulk delete
+        CheckBox selectBox = new CheckBox();
+        selectBox.setSelected(selectedIds.contains(cv.getId()));
+        selectBox.selectedProperty().addListener((observable, wasSelected, selected) -> {
+            if (selected) {
+                selectedIds.add(cv.getId());
+            } else {
+                selectedIds.remove(cv.getId());
+            }
+            deleteSelectedButton.setDisable(selectedIds.isEmpty());
+        });
 
         // CV title label
         Label titleLabel = new Label(cv.getTitle());
         titleLabel.getStyleClass().add("cv-title");
-        HBox.setHgrow(titleLabel, Priority.ALWAYS);
+
+        // Last update and section sizes
+        Label detailsLabel = new Label(formatDetails(cv));
+        detailsLabel.getStyleClass().add("cv-details");
+
+        VBox textBox = new VBox(2, titleLabel, detailsLabel);
+        textBox.setMaxWidth(Double.MAX_VALUE);
+        HBox.setHgrow(textBox, Priority.ALWAYS);
 
         // Edit button
         Button editButton = new Button(mainApp.getBundle().getString("button.edit"));
@@ -84,22 +187,61 @@ public class DashboardController {
         // Delete button
         Button deleteButton = new Button(mainApp.getBundle().getString("button.delete"));
         deleteButton.setOnAction(event -> {
-            if (DatabaseHandler.getInstance().deleteCV(cv.getId())) {
-                loadCVs(); // Refresh list
-            }
+            deleteButton.setDisable(true);
+            AsyncDatabaseHandler.getInstance().deleteCV(cv.getId()).whenComplete((deleted, error) -> {
+                if (error != null) {
+                    emptyLabel.setText(mainApp.getBundle().getString("error.database") + ": "
+                            + AsyncDatabaseHandler.unwrap(error).getMessage());
+                    emptyLabel.setVisible(true);
+                    deleteButton.setDisable(false);
+                } else {
+                    loadCVs(); // Refresh list; a CV that was already gone disappears as well
+                }
+            });
         });
 
         // Add components to HBox
-        hbox.getChildren().addAll(titleLabel, editButton, deleteButton);
+        hbox.getChildren().addAll(selectBox, textBox, editButton, deleteButton);
 
         return hbox;
     }
 
+    private String formatDetails(CVSummary cv) {
+        String sections = MessageFormat.format(mainApp.getBundle().getString("dashboard.sections"),
+                cv.getEducationCount(), cv.getExperienceCount(), cv.getSkillCount(), cv.getLanguageCount());
+        if (cv.getUpdatedAt() == null) {
+            return sections;
+        }
+        String updated = cv.getUpdatedAt().format(
+                DateTimeFormatter.ofLocalizedDateTime(FormatStyle.SHORT).withLocale(mainApp.getBundle().getLocale()));
+        return MessageFormat.format(mainApp.getBundle().getString("dashboard.updated"), updated) + " · " + sections;
+    }
+
     @FXML
     private void handleCreateCV() {
         mainApp.showCVEditor();
     }
 
+    @FXML
+    private void handleDeleteSelected() {
+        if (selectedIds.isEmpty()) {
+            return;
+        }
+
+        // All selected CVs go in one statement
+        deleteSelectedButton.setDisable(true);
+        AsyncDatabaseHandler.getInstance().deleteCVs(new ArrayList<>(selectedIds)).whenComplete((deleted, error) -> {
+            if (error != null) {
+                emptyLabel.setText(mainApp.getBundle().getString("error.database") + ": "
+                        + AsyncDatabaseHandler.unwrap(error).getMessage());
+                emptyLabel.setVisible(true);
+                deleteSelectedButton.setDisable(false);
+            } else {
+                loadCVs(); // Refresh list
+            }
+        });
+    }
+
     @FXML
     private void handleLogout() {
         mainApp.logout();
@@ -1,12 +1,11 @@
 
 package components.CVBuilder.view;
 
-import java.sql.SQLException;
-
 import components.CVBuilder.MainApp;
 import components.CVBuilder.model.User;
-import components.CVBuilder.util.DatabaseHandler;
+import components.CVBuilder.util.AsyncDatabaseHandler;
 import javafx.fxml.FXML;
+import javafx.scene.control.Button;
 import javafx.scene.control.Label;
 import javafx.scene.control.PasswordField;
 import javafx.scene.control.TextField;
@@ -21,6 +20,9 @@ public class LoginController {
     @FXML
     private Label errorLabel;
 
+    @FXML
+    private Button loginButton;
+
     private MainApp mainApp;
 
     public void setMainApp(MainApp mainApp) {
@@ -28,7 +30,7 @@ public class LoginController {
     }
 
     @FXML
-    private void handleLogin() throws SQLException {
+    private void handleLogin() {
         String username = usernameField.getText();
         String password = passwordField.getText();
 
@@ -37,14 +39,22 @@ public class LoginController {
             return;
         }
 
-        User user = DatabaseHandler.getInstance().loginUser(username, password);
+        loginButton.setDisable(true);
+        errorLabel.setText(mainApp.getBundle().getString("status.loading"));
 
-        if (user != null) {
-            mainApp.setCurrentUser(user);
-            mainApp.showDashboard();
-        } else {
-            errorLabel.setText(mainApp.getBundle().getString("login.error"));
-        }
+        AsyncDatabaseHandler.getInstance().loginUser(username, password).whenComplete((user, error) -> {
+            loginButton.setDisable(false);
+
+            if (error != null) {
+                errorLabel.setText(mainApp.getBundle().getString("error.database") + ": "
+                        + AsyncDatabaseHandler.unwrap(error).getMessage());
+            } else if (user != null) {
+                mainApp.setCurrentUser(user);
+                mainApp.showDashboard();
+            } else {
+                errorLabel.setText(mainApp.getBundle().getString("login.error"));
+            }
+        });
     }
 
     @FXML
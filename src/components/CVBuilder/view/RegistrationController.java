@@ -5,8 +5,9 @@ import java.util.regex.Pattern;
 
 import components.CVBuilder.MainApp;
 import components.CVBuilder.model.User;
-import components.CVBuilder.util.DatabaseHandler;
+import components.CVBuilder.util.AsyncDatabaseHandler;
 import javafx.fxml.FXML;
+import javafx.scene.control.Button;
 import javafx.scene.control.Label;
 import javafx.scene.control.PasswordField;
 import javafx.scene.control.TextField;
@@ -33,6 +34,9 @@ public class RegistrationController {
     @FXML
     private Label errorLabel;
 
+    @FXML
+    private Button registerButton;
+
     private MainApp mainApp;
 
     public void setMainApp(MainApp mainApp) {
@@ -40,7 +44,7 @@ public class RegistrationController {
     }
 
     @FXML
-    private void handleRegister() throws SQLException {
+    private void handleRegister() {
         String username = usernameField.getText().trim();
         String email = emailField.getText().trim();
         String password = passwordField.getText();
@@ -66,12 +70,23 @@ public class RegistrationController {
         User user = new User(username, email, password);
 
         // Try to register user
-        if (DatabaseHandler.getInstance().registerUser(user)) {
-            // Registration successful, go to login
-            mainApp.showLoginScreen();
-        } else {
-            errorLabel.setText(mainApp.getBundle().getString("registration.error.exists"));
-        }
+        registerButton.setDisable(true);
+        errorLabel.setText(mainApp.getBundle().getString("status.loading"));
+
+        AsyncDatabaseHandler.getInstance().registerUser(user).whenComplete((registered, error) -> {
+            registerButton.setDisable(false);
+
+            Throwable cause = error != null ? AsyncDatabaseHandler.unwrap(error) : null;
+            if (cause == null && registered) {
+                // Registration successful, go to login
+                mainApp.showLoginScreen();
+            } else if (cause == null || (cause instanceof SQLException
+                    && "23505".equals(((SQLException) cause).getSQLState()))) {
+                errorLabel.setText(mainApp.getBundle().getString("registration.error.exists"));
+            } else {
+                errorLabel.setText(mainApp.getBundle().getString("error.database") + ": " + cause.getMessage());
+            }
+        });
     }
 
     // Helper method to validate email format
@@ -0,0 +1,53 @@
+package components.CVBuilder.view;
+
+import java.text.MessageFormat;
+import java.util.ResourceBundle;
+
+import components.CVBuilder.util.CircuitBreaker;
+import javafx.application.Platform;
+import javafx.fxml.FXML;
+import javafx.scene.control.Label;
+
+public class RootLayoutController {
+    @FXML
+    private ResourceBundle resources;
+
+    @FXML
+    private Label databaseStatusLabel;
+
+    private final CircuitBreaker.Listener breakerListener =
+            (state, retryAtMillis) -> Platform.runLater(() -> showDatabaseStatus(state, retryAtMillis));
+
+    @FXML
+    private void initialize() {
+        CircuitBreaker breaker = CircuitBreaker.getInstance();
+        breaker.addListener(breakerListener);
+        showDatabaseStatus(breaker.getState(), breaker.getRetryAtMillis());
+    }
+
+    /**
+     * Stops following the database status; called before the layout is replaced.
+     */
+    public void dispose() {
+        CircuitBreaker.getInstance().removeListener(breakerListener);
+    }
+
+    private void showDatabaseStatus(CircuitBreaker.State state, long retryAtMillis) {
+        switch (state) {
+            case OPEN:
+                long seconds = Math.max(1, (retryAtMillis - System.currentTimeMillis() + 999) / 1000);
+                databaseStatusLabel.setText(MessageFormat.format(
+                        resources.getString("status.database.unavailable"), seconds));
+                break;
+            case HALF_OPEN:
+                databaseStatusLabel.setText(resources.getString("status.database.reconnecting"));
+                break;
+            default:
+                databaseStatusLabel.setText("");
+                break;
+        }
+        boolean visible = state != CircuitBreaker.State.CLOSED;
+        databaseStatusLabel.setVisible(visible);
+        databaseStatusLabel.setManaged(visible);
+    }
+}